@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static org.trellisldp.vocabulary.JSONLD.compacted;
+import static org.trellisldp.vocabulary.JSONLD.expanded;
+import static org.trellisldp.vocabulary.JSONLD.flattened;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFSyntax;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.jena.JenaRDF;
+
+import org.trellisldp.api.NamespaceService;
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.LDP;
+import org.trellisldp.vocabulary.RDF;
+import org.trellisldp.vocabulary.RDFS;
+import org.trellisldp.vocabulary.SKOS;
+
+/**
+ * Synthetic data and shared fixtures for the IO service benchmarks
+ *
+ * @author acoburn
+ */
+final class BenchmarkData {
+
+    static final String BASE = "http://example.org/repository/";
+
+    private static final JenaRDF rdf = new JenaRDF();
+
+    private static final IRI CONCEPT = rdf.createIRI("http://www.w3.org/2004/02/skos/core#Concept");
+    private static final IRI DESCRIPTION = rdf.createIRI("http://purl.org/dc/terms/description");
+    private static final IRI EXTENT = rdf.createIRI("http://purl.org/dc/terms/extent");
+    private static final IRI SUBJECT = rdf.createIRI("http://purl.org/dc/terms/subject");
+    private static final IRI SEE_ALSO = rdf.createIRI("http://www.w3.org/2000/01/rdf-schema#seeAlso");
+
+    private static final Map<String, RDFSyntax> SYNTAXES;
+    private static final Map<String, IRI[]> PROFILES;
+
+    static {
+        final Map<String, RDFSyntax> syntaxes = new HashMap<>();
+        syntaxes.put("TURTLE", RDFSyntax.TURTLE);
+        syntaxes.put("NTRIPLES", RDFSyntax.NTRIPLES);
+        syntaxes.put("RDFXML", RDFSyntax.RDFXML);
+        syntaxes.put("JSONLD", RDFSyntax.JSONLD);
+        syntaxes.put("JSONLD_EXPANDED", RDFSyntax.JSONLD);
+        syntaxes.put("JSONLD_COMPACTED", RDFSyntax.JSONLD);
+        syntaxes.put("JSONLD_FLATTENED", RDFSyntax.JSONLD);
+        syntaxes.put("RDFA_HTML", RDFSyntax.RDFA_HTML);
+        SYNTAXES = unmodifiableMap(syntaxes);
+
+        final Map<String, IRI[]> profiles = new HashMap<>();
+        profiles.put("JSONLD_EXPANDED", new IRI[]{expanded});
+        profiles.put("JSONLD_COMPACTED", new IRI[]{compacted});
+        profiles.put("JSONLD_FLATTENED", new IRI[]{flattened});
+        PROFILES = unmodifiableMap(profiles);
+    }
+
+    /**
+     * Get the RDF syntax for a benchmark format name
+     * @param format the format name
+     * @return the RDF syntax
+     */
+    static RDFSyntax syntax(final String format) {
+        return ofNullable(SYNTAXES.get(format)).orElseThrow(() ->
+                new IllegalArgumentException("Unknown benchmark format: " + format));
+    }
+
+    /**
+     * Get the profiles for a benchmark format name
+     * @param format the format name
+     * @return the profiles, which may be empty
+     */
+    static IRI[] profiles(final String format) {
+        return PROFILES.getOrDefault(format, new IRI[0]);
+    }
+
+    /**
+     * Generate a synthetic, subject-grouped graph in the shape of an LDP container
+     * with its children. Each child resource has ten triples, mixing IRIs, literals
+     * and blank nodes.
+     * @param size the number of triples to generate
+     * @return the triples
+     */
+    static List<Triple> triples(final int size) {
+        final List<Triple> triples = new ArrayList<>(size);
+        final IRI container = rdf.createIRI(BASE + "container");
+        BlankNode bnode = rdf.createBlankNode();
+        for (int i = 0; triples.size() < size; i++) {
+            final IRI child = rdf.createIRI(BASE + "container/child" + (i / 10));
+            switch (i % 10) {
+                case 0:
+                    triples.add(rdf.createTriple(container, LDP.contains, child));
+                    break;
+                case 1:
+                    triples.add(rdf.createTriple(child, RDF.type, CONCEPT));
+                    break;
+                case 2:
+                    triples.add(rdf.createTriple(child, DC.title, rdf.createLiteral("Resource " + i)));
+                    break;
+                case 3:
+                    triples.add(rdf.createTriple(child, SKOS.prefLabel, rdf.createLiteral("Label " + i, "en")));
+                    break;
+                case 4:
+                    triples.add(rdf.createTriple(child, RDFS.label, rdf.createLiteral("Etikett " + i, "de")));
+                    break;
+                case 5:
+                    triples.add(rdf.createTriple(child, DESCRIPTION,
+                                rdf.createLiteral("A somewhat longer description of resource number " + i)));
+                    break;
+                case 6:
+                    triples.add(rdf.createTriple(child, EXTENT, rdf.createLiteral(Integer.toString(i),
+                                    rdf.createIRI("http://www.w3.org/2001/XMLSchema#integer"))));
+                    break;
+                case 7:
+                    bnode = rdf.createBlankNode();
+                    triples.add(rdf.createTriple(child, SUBJECT, bnode));
+                    break;
+                case 8:
+                    triples.add(rdf.createTriple(bnode, RDFS.label, rdf.createLiteral("Subject " + i)));
+                    break;
+                default:
+                    triples.add(rdf.createTriple(child, SEE_ALSO,
+                                rdf.createIRI("http://sws.geonames.org/" + i + "/")));
+            }
+        }
+        return triples;
+    }
+
+    /**
+     * Create a namespace service with a realistic set of prefixes
+     * @return the namespace service
+     */
+    static NamespaceService namespaceService() {
+        final Map<String, String> namespaces = new ConcurrentHashMap<>();
+        namespaces.put("dc", "http://purl.org/dc/terms/");
+        namespaces.put("ldp", "http://www.w3.org/ns/ldp#");
+        namespaces.put("rdf", "http://www.w3.org/1999/02/22-rdf-syntax-ns#");
+        namespaces.put("rdfs", "http://www.w3.org/2000/01/rdf-schema#");
+        namespaces.put("skos", "http://www.w3.org/2004/02/skos/core#");
+        namespaces.put("xsd", "http://www.w3.org/2001/XMLSchema#");
+        return new NamespaceService() {
+            @Override
+            public Map<String, String> getNamespaces() {
+                return namespaces;
+            }
+
+            @Override
+            public Optional<String> getNamespace(final String prefix) {
+                return ofNullable(namespaces.get(prefix));
+            }
+
+            @Override
+            public Optional<String> getPrefix(final String namespace) {
+                return namespaces.entrySet().stream().filter(e -> e.getValue().equals(namespace))
+                    .map(Map.Entry::getKey).findFirst();
+            }
+
+            @Override
+            public Boolean setPrefix(final String prefix, final String namespace) {
+                return namespaces.putIfAbsent(prefix, namespace) == null;
+            }
+        };
+    }
+
+    /**
+     * Create an empty graph that is not backed by Jena, and so cannot use any indexes for pattern matching
+     * @return the graph
+     */
+    static Graph setGraph() {
+        return new SetGraph();
+    }
+
+    /**
+     * A graph that holds its triples in a set
+     */
+    private static final class SetGraph implements Graph {
+        private final Set<Triple> triples = new LinkedHashSet<>();
+
+        @Override
+        public void add(final Triple triple) {
+            triples.add(triple);
+        }
+
+        @Override
+        public void add(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            triples.add(rdf.createTriple(subject, predicate, object));
+        }
+
+        @Override
+        public boolean contains(final Triple triple) {
+            return triples.contains(triple);
+        }
+
+        @Override
+        public boolean contains(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            return stream(subject, predicate, object).findAny().isPresent();
+        }
+
+        @Override
+        public void remove(final Triple triple) {
+            triples.remove(triple);
+        }
+
+        @Override
+        public void remove(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            if (nonNull(subject) && nonNull(predicate) && nonNull(object)) {
+                triples.remove(rdf.createTriple(subject, predicate, object));
+            } else {
+                triples.removeIf(triple -> matches(triple, subject, predicate, object));
+            }
+        }
+
+        @Override
+        public void clear() {
+            triples.clear();
+        }
+
+        @Override
+        public long size() {
+            return triples.size();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream() {
+            return triples.stream();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream(final BlankNodeOrIRI subject, final IRI predicate,
+                final RDFTerm object) {
+            return triples.stream().filter(triple -> matches(triple, subject, predicate, object));
+        }
+
+        private static boolean matches(final Triple triple, final BlankNodeOrIRI subject, final IRI predicate,
+                final RDFTerm object) {
+            return (isNull(subject) || subject.equals(triple.getSubject()))
+                && (isNull(predicate) || predicate.equals(triple.getPredicate()))
+                && (isNull(object) || object.equals(triple.getObject()));
+        }
+    }
+
+    private BenchmarkData() {
+        // prevent instantiation
+    }
+}
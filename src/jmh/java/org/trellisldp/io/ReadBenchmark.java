@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.trellisldp.io.BenchmarkData.BASE;
+import static org.trellisldp.io.BenchmarkData.namespaceService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.commons.rdf.api.RDFSyntax;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for parsing synthetic graphs with {@link JenaIOService#read}
+ *
+ * @author acoburn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TURTLE", "NTRIPLES", "RDFXML", "JSONLD"})
+    public String format;
+
+    private IOService service;
+    private RDFSyntax syntax;
+    private byte[] data;
+
+    /**
+     * Set up the benchmark state
+     */
+    @Setup
+    public void setUp() {
+        service = new JenaIOService(namespaceService());
+        syntax = BenchmarkData.syntax(format);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(BenchmarkData.triples(size).stream(), out, syntax);
+        data = out.toByteArray();
+    }
+
+    /**
+     * Parse the serialized triples
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void read(final Blackhole blackhole) {
+        service.read(new ByteArrayInputStream(data), BASE, syntax).forEach(blackhole::consume);
+    }
+}
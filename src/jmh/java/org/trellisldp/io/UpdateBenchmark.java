@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.joining;
+import static org.trellisldp.io.BenchmarkData.BASE;
+import static org.trellisldp.io.BenchmarkData.namespaceService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.jena.JenaRDF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for running SPARQL-Update operations with {@link JenaIOService#update}
+ *
+ * <p>Each invocation runs an update followed by its inverse, so that a single graph can be used for
+ * the whole trial without rebuilding it; the reported times are for the pair of updates.
+ *
+ * <p>The {@code SET} graph is not backed by Jena, so updates to graphs larger than the
+ * {@code update.indexThreshold} run against an indexed copy.
+ *
+ * @author acoburn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpdateBenchmark {
+
+    private static final JenaRDF rdf = new JenaRDF();
+
+    private static final String SEE_ALSO = "http://www.w3.org/2000/01/rdf-schema#seeAlso";
+
+    private static final Map<String, String> UPDATES = new HashMap<>();
+    private static final Map<String, String> INVERSES = new HashMap<>();
+
+    static {
+        UPDATES.put("INSERT_DATA", "INSERT DATA { <> <http://purl.org/dc/terms/title> \"A new title\" }");
+        INVERSES.put("INSERT_DATA", "DELETE DATA { <> <http://purl.org/dc/terms/title> \"A new title\" }");
+        UPDATES.put("DELETE_INSERT_WHERE", "DELETE { ?s <http://purl.org/dc/terms/title> ?o } " +
+                "INSERT { ?s <http://purl.org/dc/terms/alternative> ?o } " +
+                "WHERE { ?s <http://purl.org/dc/terms/title> ?o }");
+        INVERSES.put("DELETE_INSERT_WHERE", "DELETE { ?s <http://purl.org/dc/terms/alternative> ?o } " +
+                "INSERT { ?s <http://purl.org/dc/terms/title> ?o } " +
+                "WHERE { ?s <http://purl.org/dc/terms/alternative> ?o }");
+        UPDATES.put("DELETE_WHERE", "DELETE WHERE { ?s <" + SEE_ALSO + "> ?o }");
+    }
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"INSERT_DATA", "DELETE_INSERT_WHERE", "DELETE_WHERE"})
+    public String operation;
+
+    @Param({"JENA", "SET"})
+    public String graphType;
+
+    private IOService service;
+    private String update;
+    private String inverse;
+    private Graph graph;
+
+    /**
+     * Set up the service and the graph
+     */
+    @Setup
+    public void setUp() {
+        service = new JenaIOService(namespaceService());
+        graph = "SET".equals(graphType) ? BenchmarkData.setGraph() : rdf.createGraph();
+        BenchmarkData.triples(size).forEach(graph::add);
+        update = UPDATES.get(operation);
+        // Deleted triples are restored with an INSERT DATA request for exactly those triples
+        inverse = INVERSES.containsKey(operation) ? INVERSES.get(operation)
+            : graph.stream(null, rdf.createIRI(SEE_ALSO), null)
+                .map(t -> t.getSubject().ntriplesString() + " " + t.getPredicate().ntriplesString() + " " +
+                    t.getObject().ntriplesString() + " .").collect(joining("\n", "INSERT DATA {\n", "\n}"));
+    }
+
+    /**
+     * Run the update and its inverse
+     * @return the graph, in its original state
+     */
+    @Benchmark
+    public Graph update() {
+        service.update(graph, update, BASE + "container");
+        service.update(graph, inverse, BASE + "container");
+        return graph;
+    }
+}
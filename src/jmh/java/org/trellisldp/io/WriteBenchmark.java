@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+import static org.trellisldp.io.BenchmarkData.namespaceService;
+
+import java.util.List;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFSyntax;
+import org.apache.commons.rdf.api.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.trellisldp.io.impl.CountingOutputStream;
+
+/**
+ * Benchmarks for serializing synthetic graphs with {@link JenaIOService#write}
+ *
+ * @author acoburn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TURTLE", "NTRIPLES", "RDFXML", "JSONLD_EXPANDED", "JSONLD_COMPACTED", "JSONLD_FLATTENED", "RDFA_HTML"})
+    public String format;
+
+    private IOService service;
+    private List<Triple> triples;
+    private RDFSyntax syntax;
+    private IRI[] profiles;
+
+    /**
+     * Set up the benchmark state
+     */
+    @Setup
+    public void setUp() {
+        service = new JenaIOService(namespaceService());
+        triples = BenchmarkData.triples(size);
+        syntax = BenchmarkData.syntax(format);
+        profiles = BenchmarkData.profiles(format);
+    }
+
+    /**
+     * Serialize the triples
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void write(final Blackhole blackhole) {
+        final CountingOutputStream out = new CountingOutputStream(NULL_OUTPUT_STREAM);
+        service.write(triples.stream(), out, syntax, profiles);
+        blackhole.consume(out.getCount());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io;
+
+import org.apache.commons.rdf.api.RDFSyntax;
+
+/**
+ * A hook for recording timings and counts from the {@link JenaIOService}.
+ *
+ * <p>All methods have empty default implementations, so an implementation need only override
+ * the measurements it is interested in. Implementations are called on request threads (and,
+ * for profile fetches, on background threads), so they must be thread-safe and fast.
+ *
+ * @author acoburn
+ */
+public interface IOMetrics {
+
+    /** A path for input that was parsed or serialized in full before being returned */
+    String BUFFERED = "buffered";
+
+    /** A path for input or output that was processed incrementally */
+    String STREAMING = "streaming";
+
+    /** A path for input or output that was parsed or formatted in parallel chunks */
+    String PARALLEL = "parallel";
+
+    /** A path for HTML output */
+    String HTML = "html";
+
+    /** An update that was run directly against the graph */
+    String DIRECT = "direct";
+
+    /** An update that was run against an indexed copy of the graph */
+    String INDEXED = "indexed";
+
+    /** A metrics implementation that records nothing */
+    IOMetrics NOOP = new IOMetrics() { };
+
+    /**
+     * Record a completed read. For incremental reads, this is called when the returned stream is closed.
+     * @param syntax the RDF syntax, or null for the binary RDF Thrift format
+     * @param path the processing path
+     * @param nanos the elapsed time, in nanoseconds
+     * @param triples the number of triples read
+     */
+    default void recordRead(final RDFSyntax syntax, final String path, final long nanos, final long triples) {
+        // no-op
+    }
+
+    /**
+     * Record a completed write
+     * @param syntax the RDF syntax, or null for the binary RDF Thrift format
+     * @param path the processing path
+     * @param nanos the elapsed time, in nanoseconds
+     * @param triples the number of triples written
+     * @param bytes the number of bytes written
+     */
+    default void recordWrite(final RDFSyntax syntax, final String path, final long nanos, final long triples,
+            final long bytes) {
+        // no-op
+    }
+
+    /**
+     * Record a completed SPARQL-Update operation
+     * @param path the processing path
+     * @param nanos the elapsed time, in nanoseconds
+     */
+    default void recordUpdate(final String path, final long nanos) {
+        // no-op
+    }
+
+    /**
+     * Record a lookup of a custom JSON-LD profile in the profile cache
+     * @param profile the profile IRI
+     * @param hit whether the profile was found in the cache
+     */
+    default void recordProfileCache(final String profile, final boolean hit) {
+        // no-op
+    }
+
+    /**
+     * Record a fetch of a custom JSON-LD profile document
+     * @param profile the profile IRI
+     * @param nanos the elapsed time, in nanoseconds
+     * @param success whether the document was fetched successfully
+     */
+    default void recordProfileFetch(final String profile, final long nanos, final boolean success) {
+        // no-op
+    }
+}
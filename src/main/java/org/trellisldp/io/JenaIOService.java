@@ -13,20 +13,32 @@
  */
 package org.trellisldp.io;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
 import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 import static java.util.stream.Stream.of;
+import static java.util.stream.StreamSupport.stream;
+import static org.apache.commons.rdf.api.RDFSyntax.NQUADS;
+import static org.apache.commons.rdf.api.RDFSyntax.NTRIPLES;
 import static org.apache.commons.rdf.api.RDFSyntax.RDFA_HTML;
+import static org.apache.commons.rdf.api.RDFSyntax.TURTLE;
 import static org.apache.jena.graph.Factory.createDefaultGraph;
 import static org.apache.jena.riot.Lang.JSONLD;
 import static org.apache.jena.riot.RDFFormat.JSONLD_COMPACT_FLAT;
+import static org.apache.jena.riot.RDFFormat.JSONLD_EXPAND_FLAT;
 import static org.apache.jena.riot.system.StreamRDFWriter.defaultSerialization;
 import static org.apache.jena.riot.system.StreamRDFWriter.getWriterStream;
 import static org.apache.jena.update.UpdateAction.execute;
@@ -35,53 +47,149 @@ import static org.slf4j.LoggerFactory.getLogger;
 import static org.trellisldp.io.impl.IOUtils.getJsonLdProfile;
 import static org.trellisldp.vocabulary.JSONLD.URI;
 
+import com.github.jsonldjava.core.Context;
+
 import java.io.InputStream;
-import java.io.IOException;
 import java.io.OutputStream;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.Graph;
 import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
 import org.apache.commons.rdf.api.RDFSyntax;
+import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.jena.JenaGraph;
 import org.apache.commons.rdf.jena.JenaRDF;
 import org.apache.jena.atlas.AtlasException;
-import org.apache.jena.atlas.web.HttpException;
-import org.apache.jena.atlas.web.TypedInputStream;
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.QueryParseException;
 import org.apache.jena.riot.JsonLDWriteContext;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.RDFParser;
 import org.apache.jena.riot.RiotException;
 import org.apache.jena.riot.WriterDatasetRIOT;
 import org.apache.jena.riot.system.PrefixMap;
 import org.apache.jena.riot.system.RiotLib;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.riot.web.HttpOp;
 import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.modify.request.UpdateDataInsert;
 import org.apache.jena.update.UpdateException;
+import org.apache.jena.update.UpdateRequest;
 import org.slf4j.Logger;
 
 import org.trellisldp.api.CacheService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.NamespaceService;
 import org.trellisldp.api.RuntimeRepositoryException;
+import org.trellisldp.io.impl.CompactGraph;
+import org.trellisldp.io.impl.CountingOutputStream;
+import org.trellisldp.io.impl.DeltaGraph;
 import org.trellisldp.io.impl.HtmlSerializer;
+import org.trellisldp.io.impl.JsonLdCompactor;
+import org.trellisldp.io.impl.JsonLdStreamWriter;
+import org.trellisldp.io.impl.LruCache;
+import org.trellisldp.io.impl.NamespaceCache;
+import org.trellisldp.io.impl.ParallelNTriplesWriter;
+import org.trellisldp.io.impl.ParallelParser;
+import org.trellisldp.io.impl.ProfileResolver;
+import org.trellisldp.io.impl.RdfXmlHeader;
+import org.trellisldp.io.impl.RdfXmlStreamWriter;
+import org.trellisldp.io.impl.StreamMerger;
+import org.trellisldp.io.impl.StreamingParser;
+import org.trellisldp.io.impl.TripleConverter;
 
 /**
  * An IOService implemented using Jena
  *
+ * <p>In addition to the {@link RDFSyntax} values, triples may be exchanged in the binary RDF Thrift format
+ * ({@value #RDF_THRIFT}) with {@link #readBinary} and {@link #writeBinary}; these are reported to
+ * {@link IOMetrics} with a null syntax.
+ *
+ * <p>Timings and counts for reads, writes, updates and JSON-LD profile resolution may be collected
+ * by supplying an {@link IOMetrics} implementation.
+ *
+ * <p>In addition to the HTML view properties, the following configuration properties are supported:
+ * <ul>
+ * <li>{@code template.watch}: if {@code true}, a filesystem HTML template is recompiled in the background
+ * whenever it changes, until the service is closed (default: {@code false})</li>
+ * <li>{@code template.profile.<IRI>}: the HTML template used when the given profile IRI is requested,
+ * instead of the {@code template} property</li>
+ * <li>{@code html.streaming}: if {@code true}, HTML rows are rendered in the order in which the triples
+ * are produced, without first collecting and sorting them; the page title is then the resource IRI, and
+ * a template can iterate over {@code triples} only once (default: {@code false})</li>
+ * <li>{@code html.flushInterval}: the number of rows after which a streaming HTML response is flushed
+ * (default: {@code 1000})</li>
+ * <li>{@code read.streaming}: if {@code true}, N-Triples, N-Quads and Turtle input is parsed lazily
+ * as the returned stream is consumed; a stream that is not consumed to the end should be closed, so that
+ * its parser thread is released without waiting for the stream to be garbage collected
+ * (default: {@code false})</li>
+ * <li>{@code read.bufferSize}: the maximum number of parsed triples held in memory by a streaming
+ * read (default: {@code 4096})</li>
+ * <li>{@code read.parallel}: if {@code true}, N-Triples and N-Quads input is split into chunks at
+ * line boundaries and parsed in parallel; this takes precedence over {@code read.streaming}
+ * (default: {@code false})</li>
+ * <li>{@code read.parallel.chunkSize}: the size, in bytes, of each chunk parsed in parallel
+ * (default: {@code 1048576})</li>
+ * <li>{@code read.parallel.ordered}: if {@code false}, triples from a parallel read may be returned
+ * in any order (default: {@code true})</li>
+ * <li>{@code write.parallel}: if {@code true}, N-Triples output is formatted on several threads and
+ * written in chunks, in no particular order (default: {@code false})</li>
+ * <li>{@code write.parallel.chunkSize}: the size, in characters, of each chunk of N-Triples formatted
+ * by a single thread before it is written (default: {@code 65536})</li>
+ * <li>{@code write.prunePrefixes}: if {@code true}, only those namespaces that are used by the
+ * serialized triples are declared in Turtle, RDF/XML and compacted JSON-LD output; when Turtle is streamed,
+ * a namespace that is not used by the leading triples is declared where it is first used
+ * (default: {@code false})</li>
+ * <li>{@code write.prunePrefixes.lookahead}: the number of triples read ahead, when streaming, to find
+ * the namespaces that are declared at the start of the output (default: {@code 1000})</li>
+ * <li>{@code write.termCacheSize}: the maximum number of distinct IRIs and blank nodes whose Jena
+ * form is reused while writing a single response (default: {@code 1024})</li>
+ * <li>{@code write.bufferSize}: the size, in characters, of the pooled output buffer used for HTML,
+ * RDF/XML and JSON-LD responses (default: {@code 8192})</li>
+ * <li>{@code update.cacheSize}: the maximum number of parsed SPARQL-Update requests, keyed by the
+ * update text and base IRI, held in memory (default: {@code 100})</li>
+ * <li>{@code update.indexThreshold}: the size above which a graph that is not backed by Jena is copied
+ * into an indexed in-memory graph before a SPARQL-Update is run, with the changes written back
+ * afterwards (default: {@code 1000})</li>
+ * <li>{@code namespaces.ttl}: the time, in milliseconds, for which a snapshot of the namespace service
+ * is used before it is reloaded (default: {@code 60000})</li>
+ * <li>{@code jsonld.contextCacheSize}: the maximum number of processed JSON-LD contexts for custom
+ * profiles held in memory (default: {@code 100})</li>
+ * <li>{@code jsonld.profile.timeout}: the maximum time, in milliseconds, that a request waits for a
+ * custom JSON-LD profile that has not yet been fetched (default: {@code 3000})</li>
+ * <li>{@code jsonld.profile.refresh}: the time, in milliseconds, after which a fetched profile is
+ * refreshed in the background (default: {@code 3600000}); profile documents are held by the
+ * {@link ProfileResolver}, and a supplied {@link CacheService} is no longer consulted for them</li>
+ * <li>{@code jsonld.profile.negativeTtl}: the time, in milliseconds, for which a failed profile fetch
+ * is cached (default: {@code 60000})</li>
+ * </ul>
+ *
  * @author acoburn
  */
 public class JenaIOService implements IOService {
 
+    /** The media type for the binary RDF Thrift format */
+    public static final String RDF_THRIFT = "application/rdf+thrift";
+
     private static final Logger LOGGER = getLogger(JenaIOService.class);
 
     private static final JenaRDF rdf = new JenaRDF();
@@ -91,12 +199,40 @@ public class JenaIOService implements IOService {
         new SimpleEntry<>("css", "//s3.amazonaws.com/www.trellisldp.org/assets/css/trellis.css"))
             .collect(toMap(Map.Entry::getKey, Map.Entry::getValue)));
 
+    private static final Set<RDFSyntax> STREAMING_SYNTAXES = unmodifiableSet(new HashSet<>(
+                asList(NTRIPLES, NQUADS, TURTLE)));
+
+    private static final RdfXmlHeader DEFAULT_RDFXML_HEADER = RdfXmlHeader.of(emptyMap());
+
+    private static final int MERGE_CHUNK_SIZE = 1024;
+
+    private static final int MERGE_CAPACITY = 16;
+
+    private static final Set<RDFSyntax> PARALLEL_SYNTAXES = unmodifiableSet(new HashSet<>(
+                asList(NTRIPLES, NQUADS)));
+
     private final Set<String> whitelist;
     private final Set<String> whitelistDomains;
-    private final CacheService<String, String> cache;
+    private final JsonLdCompactor compactor;
+    private final ProfileResolver resolver;
 
-    private final NamespaceService nsService;
+    private final NamespaceCache namespaces;
     private final HtmlSerializer htmlSerializer;
+    private final IOMetrics metrics;
+    private final boolean instrumented;
+    private final boolean streamingRead;
+    private final int readBufferSize;
+    private final boolean parallelRead;
+    private final int parallelChunkSize;
+    private final boolean parallelOrdered;
+    private final boolean parallelWrite;
+    private final int parallelWriteChunkSize;
+    private final boolean prunePrefixes;
+    private final int pruneLookahead;
+    private final int termCacheSize;
+    private final int writeBufferSize;
+    private final LruCache<Map.Entry<String, String>, UpdateRequest> updates;
+    private final long updateIndexThreshold;
 
     /**
      * Create a serialization service
@@ -109,7 +245,7 @@ public class JenaIOService implements IOService {
     /**
      * Create a serialization service
      * @param namespaceService the namespace service
-     * @param properties additional properties for the HTML view
+     * @param properties additional properties for the HTML view and the parsers
      */
     public JenaIOService(final NamespaceService namespaceService, final Map<String, String> properties) {
         this(namespaceService, properties, emptySet(), emptySet(), null);
@@ -118,19 +254,94 @@ public class JenaIOService implements IOService {
     /**
      * Create a serialization service
      * @param namespaceService the namespace service
-     * @param properties additional properties for the HTML view
+     * @param properties additional properties for the HTML view and the parsers
      * @param whitelist a whitelist of JSON-LD profiles
      * @param whitelistDomains a whitelist of domains for use with JSON-LD profiles
-     * @param cache a cache for custom JSON-LD profile resolution
+     * @param cache unused: custom JSON-LD profiles are cached by the {@link ProfileResolver}
      */
     public JenaIOService(final NamespaceService namespaceService, final Map<String, String> properties,
             final Set<String> whitelist, final Set<String> whitelistDomains, final CacheService<String, String> cache) {
-        this.nsService = namespaceService;
+        this(namespaceService, properties, whitelist, whitelistDomains, cache, IOMetrics.NOOP);
+    }
+
+    /**
+     * Create a serialization service
+     * @param namespaceService the namespace service
+     * @param properties additional properties for the HTML view and the parsers
+     * @param whitelist a whitelist of JSON-LD profiles
+     * @param whitelistDomains a whitelist of domains for use with JSON-LD profiles
+     * @param cache unused: custom JSON-LD profiles are cached by the {@link ProfileResolver}
+     * @param metrics a hook for recording timings and counts
+     */
+    public JenaIOService(final NamespaceService namespaceService, final Map<String, String> properties,
+            final Set<String> whitelist, final Set<String> whitelistDomains, final CacheService<String, String> cache,
+            final IOMetrics metrics) {
+        this(namespaceService, properties, whitelist, whitelistDomains, cache, new ProfileResolver(
+                    timedFetch(requireNonNull(metrics, "The metrics hook may not be null!")),
+                    parseLong(properties.getOrDefault("jsonld.profile.timeout", "3000")),
+                    parseLong(properties.getOrDefault("jsonld.profile.refresh", "3600000")),
+                    parseLong(properties.getOrDefault("jsonld.profile.negativeTtl", "60000"))), metrics);
+    }
+
+    /**
+     * Create a serialization service
+     * @param namespaceService the namespace service
+     * @param properties additional properties for the HTML view and the parsers
+     * @param whitelist a whitelist of JSON-LD profiles
+     * @param whitelistDomains a whitelist of domains for use with JSON-LD profiles
+     * @param cache unused: custom JSON-LD profiles are cached by the {@link ProfileResolver}
+     * @param resolver a resolver for fetching custom JSON-LD profile documents
+     */
+    public JenaIOService(final NamespaceService namespaceService, final Map<String, String> properties,
+            final Set<String> whitelist, final Set<String> whitelistDomains, final CacheService<String, String> cache,
+            final ProfileResolver resolver) {
+        this(namespaceService, properties, whitelist, whitelistDomains, cache, resolver, IOMetrics.NOOP);
+    }
+
+    /**
+     * Create a serialization service
+     * @param namespaceService the namespace service
+     * @param properties additional properties for the HTML view and the parsers
+     * @param whitelist a whitelist of JSON-LD profiles
+     * @param whitelistDomains a whitelist of domains for use with JSON-LD profiles
+     * @param cache unused: custom JSON-LD profiles are cached by the {@link ProfileResolver}
+     * @param resolver a resolver for fetching custom JSON-LD profile documents
+     * @param metrics a hook for recording timings and counts
+     */
+    public JenaIOService(final NamespaceService namespaceService, final Map<String, String> properties,
+            final Set<String> whitelist, final Set<String> whitelistDomains, final CacheService<String, String> cache,
+            final ProfileResolver resolver, final IOMetrics metrics) {
+        this.metrics = requireNonNull(metrics, "The metrics hook may not be null!");
+        this.instrumented = metrics != IOMetrics.NOOP;
+        this.namespaces = nonNull(namespaceService) ? new NamespaceCache(namespaceService,
+                parseLong(properties.getOrDefault("namespaces.ttl", "60000"))) : null;
         this.htmlSerializer = new HtmlSerializer(namespaceService,
                 properties.getOrDefault("template", "org/trellisldp/io/resource.mustache"), properties);
         this.whitelist = unmodifiableSet(whitelist);
         this.whitelistDomains = unmodifiableSet(whitelistDomains);
-        this.cache = cache;
+        this.resolver = requireNonNull(resolver, "The profile resolver may not be null!");
+        this.streamingRead = parseBoolean(properties.getOrDefault("read.streaming", "false"));
+        this.readBufferSize = parseInt(properties.getOrDefault("read.bufferSize", "4096"));
+        this.parallelRead = parseBoolean(properties.getOrDefault("read.parallel", "false"));
+        this.parallelChunkSize = parseInt(properties.getOrDefault("read.parallel.chunkSize", "1048576"));
+        this.parallelOrdered = parseBoolean(properties.getOrDefault("read.parallel.ordered", "true"));
+        this.parallelWrite = parseBoolean(properties.getOrDefault("write.parallel", "false"));
+        this.parallelWriteChunkSize = parseInt(properties.getOrDefault("write.parallel.chunkSize", "65536"));
+        this.prunePrefixes = parseBoolean(properties.getOrDefault("write.prunePrefixes", "false"));
+        this.pruneLookahead = parseInt(properties.getOrDefault("write.prunePrefixes.lookahead", "1000"));
+        this.termCacheSize = parseInt(properties.getOrDefault("write.termCacheSize", "1024"));
+        this.updates = new LruCache<>(parseInt(properties.getOrDefault("update.cacheSize", "100")));
+        this.updateIndexThreshold = parseLong(properties.getOrDefault("update.indexThreshold", "1000"));
+        this.writeBufferSize = parseInt(properties.getOrDefault("write.bufferSize", "8192"));
+        this.compactor = new JsonLdCompactor(parseInt(properties.getOrDefault("jsonld.contextCacheSize", "100")),
+                writeBufferSize);
+    }
+
+    /**
+     * Release the background resources held by this service, such as the HTML template watcher
+     */
+    public void close() {
+        htmlSerializer.close();
     }
 
     @Override
@@ -140,63 +351,249 @@ public class JenaIOService implements IOService {
         requireNonNull(output, "The output stream may not be null!");
         requireNonNull(syntax, "The RDF syntax value may not be null!");
 
+        final long start = nanoTime();
+        final LongAdder count = new LongAdder();
+        final CountingOutputStream counter = instrumented ? new CountingOutputStream(output) : null;
+        final String path = serialize(instrumented ? triples.peek(triple -> count.increment()) : triples,
+                instrumented ? counter : output, syntax, profiles);
+        if (instrumented) {
+            metrics.recordWrite(syntax, path, nanoTime() - start, count.sum(), counter.getCount());
+        }
+    }
+
+    private String serialize(final Stream<? extends Triple> triples, final OutputStream output,
+            final RDFSyntax syntax, final IRI... profiles) {
         try {
             if (RDFA_HTML.equals(syntax)) {
-                htmlSerializer.write(output, triples, profiles.length > 0 ? profiles[0] : null);
+                htmlSerializer.write(output, triples, profiles.length > 0 ? profiles[0] : null,
+                        htmlSerializer.getTemplate(profiles));
+                return IOMetrics.HTML;
+            }
+            if (parallelWrite && NTRIPLES.equals(syntax)) {
+                LOGGER.debug("Writing parallel N-Triples");
+                ParallelNTriplesWriter.write(triples, output, parallelWriteChunkSize, termCacheSize);
+                return IOMetrics.PARALLEL;
+            }
+            final Lang lang = rdf.asJenaLang(syntax).orElseThrow(() ->
+                    new RuntimeRepositoryException("Invalid content type: " + syntax.mediaType));
+
+            final RDFFormat format = defaultSerialization(lang);
+
+            if (nonNull(format)) {
+                LOGGER.debug("Writing stream-based RDF: {}", format);
+                writeStream(triples, getWriterStream(output, format), usesPrefixes(lang));
+            } else if (Lang.RDFXML.equals(lang)) {
+                LOGGER.debug("Writing stream-based RDF: {}", lang);
+                if (prunePrefixes) {
+                    // The header is built from the prefixes declared by the look-ahead
+                    writeStream(triples, new RdfXmlStreamWriter(output, writeBufferSize), true);
+                } else {
+                    final RdfXmlHeader header = nonNull(namespaces) ? namespaces.getRdfXmlHeader()
+                        : DEFAULT_RDFXML_HEADER;
+                    writeStream(triples, new RdfXmlStreamWriter(output, writeBufferSize, header), false);
+                }
+            } else if (JSONLD.equals(lang) && JSONLD_EXPAND_FLAT.equals(getJsonLdFormat(profiles))) {
+                LOGGER.debug("Writing stream-based RDF: {}", JSONLD_EXPAND_FLAT);
+                writeStream(triples, new JsonLdStreamWriter(output, writeBufferSize), false);
             } else {
-                final Lang lang = rdf.asJenaLang(syntax).orElseThrow(() ->
-                        new RuntimeRepositoryException("Invalid content type: " + syntax.mediaType));
-
-                final RDFFormat format = defaultSerialization(lang);
-
-                if (nonNull(format)) {
-                    LOGGER.debug("Writing stream-based RDF: {}", format);
-                    final StreamRDF stream = getWriterStream(output, format);
-                    stream.start();
-                    ofNullable(nsService).ifPresent(svc -> svc.getNamespaces().forEach(stream::prefix));
-                    triples.map(rdf::asJenaTriple).forEachOrdered(stream::triple);
-                    stream.finish();
+                LOGGER.debug("Writing buffered RDF: {}", lang);
+                final org.apache.jena.graph.Graph graph = new CompactGraph();
+                triples.map(newConverter()).forEachOrdered(graph::add);
+                if (nonNull(namespaces)) {
+                    graph.getPrefixMapping().setNsPrefixes(prunePrefixes
+                            ? namespaces.getNamespaceTrie().getUsedPrefixes(graph.find())
+                            : namespaces.getNamespaces());
+                }
+                if (JSONLD.equals(lang)) {
+                    writeJsonLd(output, DatasetGraphFactory.create(graph), profiles);
                 } else {
-                    LOGGER.debug("Writing buffered RDF: {}", lang);
-                    final org.apache.jena.graph.Graph graph = createDefaultGraph();
-                    ofNullable(nsService).map(NamespaceService::getNamespaces)
-                        .ifPresent(graph.getPrefixMapping()::setNsPrefixes);
-                    triples.map(rdf::asJenaTriple).forEachOrdered(graph::add);
-                    if (JSONLD.equals(lang)) {
-                        writeJsonLd(output, DatasetGraphFactory.create(graph), profiles);
-                    } else {
-                        RDFDataMgr.write(output, graph, lang);
-                    }
+                    RDFDataMgr.write(output, graph, lang);
+                }
+                return IOMetrics.BUFFERED;
+            }
+            return IOMetrics.STREAMING;
+        } catch (final AtlasException | RiotException ex) {
+            throw new RuntimeRepositoryException(ex);
+        }
+    }
+
+    /**
+     * Serialize a stream of quads, including any named graphs, to an output stream
+     *
+     * <p>N-Quads and TriG are written as the quads are produced; JSON-LD is buffered and written
+     * with one {@code @graph} object per named graph, using one of the standard JSON-LD profiles.
+     *
+     * @param quads the quads
+     * @param output the output stream
+     * @param syntax the RDF syntax, which must support named graphs
+     * @param profiles additional profile values
+     */
+    public void writeQuads(final Stream<? extends Quad> quads, final OutputStream output, final RDFSyntax syntax,
+            final IRI... profiles) {
+        requireNonNull(quads, "The quads stream may not be null!");
+        requireNonNull(output, "The output stream may not be null!");
+        requireNonNull(syntax, "The RDF syntax value may not be null!");
+
+        final long start = nanoTime();
+        final LongAdder count = new LongAdder();
+        final CountingOutputStream counter = instrumented ? new CountingOutputStream(output) : null;
+        final String path = serializeQuads(instrumented ? quads.peek(quad -> count.increment()) : quads,
+                instrumented ? counter : output, syntax, profiles);
+        if (instrumented) {
+            metrics.recordWrite(syntax, path, nanoTime() - start, count.sum(), counter.getCount());
+        }
+    }
+
+    /**
+     * Serialize several graphs, each produced by its own stream of quads, to an output stream
+     *
+     * <p>The graph streams are consumed concurrently and merged as they are written, so the graphs
+     * are not held in memory (other than for JSON-LD). The quads of each graph keep their relative
+     * order, but the quads of different graphs may be interleaved.
+     *
+     * @param graphs the quad streams, typically one per named graph
+     * @param output the output stream
+     * @param syntax the RDF syntax, which must support named graphs
+     * @param profiles additional profile values
+     */
+    public void writeQuads(final List<? extends Stream<? extends Quad>> graphs, final OutputStream output,
+            final RDFSyntax syntax, final IRI... profiles) {
+        requireNonNull(graphs, "The graph streams may not be null!");
+        try (final Stream<Quad> quads = StreamMerger.merge(graphs, MERGE_CHUNK_SIZE, MERGE_CAPACITY)) {
+            writeQuads(quads, output, syntax, profiles);
+        }
+    }
+
+    private String serializeQuads(final Stream<? extends Quad> quads, final OutputStream output,
+            final RDFSyntax syntax, final IRI... profiles) {
+        try {
+            final Lang lang = rdf.asJenaLang(syntax).filter(RDFLanguages::isQuads).orElseThrow(() ->
+                    new RuntimeRepositoryException("Invalid content type for quads: " + syntax.mediaType));
+
+            final RDFFormat format = defaultSerialization(lang);
+
+            if (nonNull(format)) {
+                LOGGER.debug("Writing stream-based quads: {}", format);
+                final StreamRDF stream = getWriterStream(output, format);
+                stream.start();
+                if (usesPrefixes(lang)) {
+                    ofNullable(namespaces).ifPresent(ns -> ns.getNamespaces().forEach(stream::prefix));
                 }
+                quads.map(rdf::asJenaQuad).forEachOrdered(stream::quad);
+                stream.finish();
+                return IOMetrics.STREAMING;
+            }
+            LOGGER.debug("Writing buffered quads: {}", lang);
+            final DatasetGraph dataset = DatasetGraphFactory.create();
+            ofNullable(namespaces).map(NamespaceCache::getNamespaces)
+                .ifPresent(dataset.getDefaultGraph().getPrefixMapping()::setNsPrefixes);
+            quads.map(rdf::asJenaQuad).forEachOrdered(dataset::add);
+            if (JSONLD.equals(lang)) {
+                RDFDataMgr.createDatasetWriter(getJsonLdProfile(profiles)).write(output, dataset,
+                        RiotLib.prefixMap(dataset), null, new JsonLDWriteContext());
+            } else {
+                RDFDataMgr.write(output, dataset, lang);
+            }
+            return IOMetrics.BUFFERED;
+        } catch (final AtlasException | RiotException ex) {
+            throw new RuntimeRepositoryException(ex);
+        }
+    }
+
+    private void writeStream(final Stream<? extends Triple> triples, final StreamRDF stream,
+            final boolean prefixes) {
+        stream.start();
+        Stream<org.apache.jena.graph.Triple> converted = triples.map(newConverter());
+        if (prefixes && nonNull(namespaces)) {
+            if (prunePrefixes) {
+                converted = namespaces.getNamespaceTrie().declareUsedPrefixes(converted, pruneLookahead,
+                        stream::prefix);
+            } else {
+                namespaces.getNamespaces().forEach(stream::prefix);
             }
-        } catch (final AtlasException ex) {
+        }
+        converted.forEachOrdered(stream::triple);
+        stream.finish();
+    }
+
+    /**
+     * Serialize a stream of triples in the binary RDF Thrift format
+     *
+     * <p>The triples are written as they are produced.
+     *
+     * @param triples the triples
+     * @param output the output stream
+     */
+    public void writeBinary(final Stream<? extends Triple> triples, final OutputStream output) {
+        requireNonNull(triples, "The triples stream may not be null!");
+        requireNonNull(output, "The output stream may not be null!");
+
+        final long start = nanoTime();
+        final LongAdder count = new LongAdder();
+        final CountingOutputStream counter = instrumented ? new CountingOutputStream(output) : null;
+        try {
+            LOGGER.debug("Writing stream-based RDF: {}", RDFFormat.RDF_THRIFT);
+            writeStream(instrumented ? triples.peek(triple -> count.increment()) : triples,
+                    getWriterStream(instrumented ? counter : output, RDFFormat.RDF_THRIFT), false);
+        } catch (final AtlasException | RiotException ex) {
             throw new RuntimeRepositoryException(ex);
         }
+        if (instrumented) {
+            metrics.recordWrite(null, IOMetrics.STREAMING, nanoTime() - start, count.sum(), counter.getCount());
+        }
+    }
+
+    /**
+     * Read a stream of triples in the binary RDF Thrift format
+     *
+     * <p>The input is parsed lazily, as the returned stream is consumed, so callers that do not
+     * consume the entire stream should close it; otherwise the parser thread is only released once the
+     * stream has been garbage collected.
+     *
+     * @param input the input stream
+     * @return a stream of triples; parse errors are thrown as a {@link RuntimeRepositoryException}
+     *         while the stream is being consumed
+     */
+    public Stream<? extends Triple> readBinary(final InputStream input) {
+        requireNonNull(input, "The input stream may not be null!");
+        final long start = nanoTime();
+        LOGGER.debug("Reading stream-based RDF: {}", Lang.RDFTHRIFT);
+        return instrument(StreamingParser.parse(input, null, Lang.RDFTHRIFT, (prefix, namespace) ->
+                setNamespaces(singletonMap(prefix, namespace)), readBufferSize).map(rdf::asTriple),
+                null, IOMetrics.STREAMING, start);
+    }
+
+    /**
+     * Whether a stream writer for this language makes use of prefix declarations
+     */
+    private static boolean usesPrefixes(final Lang lang) {
+        return !Lang.NTRIPLES.equals(lang) && !Lang.NQUADS.equals(lang);
+    }
+
+    private TripleConverter newConverter() {
+        return new TripleConverter(termCacheSize);
+    }
+
+    private RDFFormat getJsonLdFormat(final IRI... profiles) {
+        return nonNull(getCustomJsonLdProfile(profiles)) ? JSONLD_COMPACT_FLAT : getJsonLdProfile(profiles);
     }
 
     private void writeJsonLd(final OutputStream output, final DatasetGraph graph, final IRI... profiles) {
         final String profile = getCustomJsonLdProfile(profiles);
-        final RDFFormat format = nonNull(profile) && nonNull(cache) ? JSONLD_COMPACT_FLAT : getJsonLdProfile(profiles);
-        final WriterDatasetRIOT writer = RDFDataMgr.createDatasetWriter(format);
-        final PrefixMap pm = RiotLib.prefixMap(graph);
-        final String base = null;
-        final JsonLDWriteContext ctx = new JsonLDWriteContext();
-        if (nonNull(profile) && nonNull(cache)) {
+        if (nonNull(profile)) {
             LOGGER.debug("Setting JSON-LD context with profile: {}", profile);
-            final String c = cache.get(profile, p -> {
-                try (final TypedInputStream res = HttpOp.execHttpGet(profile)) {
-                    return IOUtils.toString(res.getInputStream(), UTF_8);
-                } catch (final IOException | HttpException ex) {
-                    LOGGER.warn("Error fetching profile {}: {}", p, ex.getMessage());
-                    return null;
-                }
-            });
-            if (nonNull(c)) {
-                ctx.setJsonLDContext(c);
-                ctx.setJsonLDContextSubstitution("\"" + profile + "\"");
+            metrics.recordProfileCache(profile, resolver.isCached(profile));
+            final Optional<Context> context = ofNullable(resolver.resolve(profile))
+                .flatMap(doc -> compactor.getContext(profile, doc));
+            if (context.isPresent()) {
+                compactor.write(output, graph.getDefaultGraph(), profile, context.get());
+                return;
             }
         }
-        writer.write(output, graph, pm, base, ctx);
+        final WriterDatasetRIOT writer = RDFDataMgr.createDatasetWriter(getJsonLdFormat(profiles));
+        final PrefixMap pm = RiotLib.prefixMap(graph);
+        final String base = null;
+        writer.write(output, graph, pm, base, new JsonLDWriteContext());
     }
 
     private String getCustomJsonLdProfile(final IRI... profiles) {
@@ -221,38 +618,214 @@ public class JenaIOService implements IOService {
         requireNonNull(input, "The input stream may not be null!");
         requireNonNull(syntax, "The syntax value may not be null!");
 
+        final long start = nanoTime();
         try {
-            final org.apache.jena.graph.Graph graph = createDefaultGraph();
             final Lang lang = rdf.asJenaLang(syntax).orElseThrow(() ->
                     new RuntimeRepositoryException("Unsupported RDF Syntax: " + syntax.mediaType));
 
+            if (parallelRead && PARALLEL_SYNTAXES.contains(syntax)) {
+                LOGGER.debug("Reading line-based RDF in parallel: {}", lang);
+                return instrument(ParallelParser.parse(input, lang, parallelChunkSize, parallelOrdered)
+                        .map(rdf::asTriple), syntax, IOMetrics.PARALLEL, start);
+            }
+
+            if (streamingRead && STREAMING_SYNTAXES.contains(syntax)) {
+                LOGGER.debug("Reading stream-based RDF: {}", lang);
+                return instrument(StreamingParser.parse(input, base, lang, (prefix, namespace) ->
+                        setNamespaces(singletonMap(prefix, namespace)), readBufferSize).map(rdf::asTriple),
+                        syntax, IOMetrics.STREAMING, start);
+            }
+
+            LOGGER.debug("Reading buffered RDF: {}", lang);
+            final org.apache.jena.graph.Graph graph = new CompactGraph();
             RDFParser.source(input).lang(lang).base(base).parse(graph);
 
             // Check the graph for any new namespace definitions
-            if (nonNull(nsService)) {
-                final Set<String> namespaces = nsService.getNamespaces().entrySet().stream().map(Map.Entry::getValue)
-                    .collect(toSet());
-                graph.getPrefixMapping().getNsPrefixMap().forEach((prefix, namespace) -> {
-                    if (!namespaces.contains(namespace)) {
-                        LOGGER.debug("Setting prefix ({}) for namespace {}", prefix, namespace);
-                        nsService.setPrefix(prefix, namespace);
-                    }
-                });
-            }
+            setNamespaces(graph.getPrefixMapping().getNsPrefixMap());
+            metrics.recordRead(syntax, IOMetrics.BUFFERED, nanoTime() - start, graph.size());
             return rdf.asGraph(graph).stream();
         } catch (final RiotException | AtlasException ex) {
             throw new RuntimeRepositoryException(ex);
         }
     }
 
+    /**
+     * Count the triples in a lazily parsed stream, recording the read once, when the stream is exhausted,
+     * fails or is closed, whichever happens first.
+     */
+    private <T> Stream<T> instrument(final Stream<T> triples, final RDFSyntax syntax, final String path,
+            final long start) {
+        if (!instrumented) {
+            return triples;
+        }
+        final LongAdder count = new LongAdder();
+        final AtomicBoolean recorded = new AtomicBoolean();
+        final Runnable record = () -> {
+            if (recorded.compareAndSet(false, true)) {
+                metrics.recordRead(syntax, path, nanoTime() - start, count.sum());
+            }
+        };
+        final Spliterator<T> source = triples.spliterator();
+        return stream(new AbstractSpliterator<T>(Long.MAX_VALUE, source.characteristics() & (ORDERED | NONNULL)) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                try {
+                    if (source.tryAdvance(action)) {
+                        count.increment();
+                        return true;
+                    }
+                } catch (final RuntimeException ex) {
+                    record.run();
+                    throw ex;
+                }
+                record.run();
+                return false;
+            }
+        }, false).onClose(triples::close).onClose(record);
+    }
+
+    private void setNamespaces(final Map<String, String> prefixes) {
+        if (nonNull(namespaces) && !prefixes.isEmpty()) {
+            namespaces.register(prefixes);
+        }
+    }
+
     @Override
     public void update(final Graph graph, final String update, final String base) {
         requireNonNull(graph, "The input graph may not be null");
         requireNonNull(update, "The update command may not be null");
+        final long start = nanoTime();
+        final boolean indexed = useIndexedUpdate(graph);
         try {
-            execute(create(update, base), rdf.asJenaGraph(graph));
+            if (indexed) {
+                LOGGER.debug("Updating an indexed copy of a graph with more than {} triples", updateIndexThreshold);
+                final Map<Node, RDFTerm> blankNodes = new HashMap<>();
+                final DeltaGraph delta = new DeltaGraph(copyOf(graph, blankNodes));
+                execute(parseUpdate(update, base), delta);
+                applyDelta(delta, graph, blankNodes);
+            } else {
+                execute(parseUpdate(update, base), rdf.asJenaGraph(graph));
+            }
         } catch (final UpdateException | QueryParseException ex) {
             throw new RuntimeRepositoryException(ex);
         }
+        metrics.recordUpdate(indexed ? IOMetrics.INDEXED : IOMetrics.DIRECT, nanoTime() - start);
+    }
+
+    /**
+     * Apply a SPARQL-Update operation to a graph, recording the net changes
+     * @param graph the graph
+     * @param update the SPARQL-Update command
+     * @param base the base IRI, may be null
+     * @param additions a graph to which any triples added by the update will be added
+     * @param deletions a graph to which any triples removed by the update will be added
+     */
+    public void update(final Graph graph, final String update, final String base, final Graph additions,
+            final Graph deletions) {
+        requireNonNull(graph, "The input graph may not be null");
+        requireNonNull(update, "The update command may not be null");
+        requireNonNull(additions, "The additions graph may not be null");
+        requireNonNull(deletions, "The deletions graph may not be null");
+        final long start = nanoTime();
+        final boolean indexed = useIndexedUpdate(graph);
+        final Map<Node, RDFTerm> blankNodes = new HashMap<>();
+        final DeltaGraph delta = new DeltaGraph(indexed ? copyOf(graph, blankNodes) : rdf.asJenaGraph(graph));
+        try {
+            execute(parseUpdate(update, base), delta);
+        } catch (final UpdateException | QueryParseException ex) {
+            throw new RuntimeRepositoryException(ex);
+        }
+        if (indexed) {
+            applyDelta(delta, graph, blankNodes);
+        }
+        metrics.recordUpdate(indexed ? IOMetrics.INDEXED : IOMetrics.DIRECT, nanoTime() - start);
+        delta.getAdditions().stream().map(rdf::asTriple).forEachOrdered(additions::add);
+        delta.getDeletions().stream().map(rdf::asTriple).forEachOrdered(deletions::add);
+    }
+
+    /**
+     * Pattern matching against a graph that is not backed by Jena cannot use any indexes, so large
+     * graphs of this kind are updated as an indexed in-memory copy.
+     */
+    private boolean useIndexedUpdate(final Graph graph) {
+        if (graph instanceof JenaGraph) {
+            return false;
+        }
+        // Graph::size may itself be a full scan, so only look for a triple past the threshold
+        try (final Stream<? extends Triple> triples = graph.stream()) {
+            return triples.skip(updateIndexThreshold).findAny().isPresent();
+        }
+    }
+
+    /**
+     * Copy a graph into an indexed Jena graph. The converted form of a blank node does not compare
+     * equal to the original term, so each copied blank node is mapped back to the original.
+     */
+    private org.apache.jena.graph.Graph copyOf(final Graph graph, final Map<Node, RDFTerm> blankNodes) {
+        final org.apache.jena.graph.Graph copy = createDefaultGraph();
+        final TripleConverter converter = newConverter();
+        graph.stream().sequential().forEach(triple -> {
+            final org.apache.jena.graph.Triple copied = converter.apply(triple);
+            if (copied.getSubject().isBlank()) {
+                blankNodes.putIfAbsent(copied.getSubject(), triple.getSubject());
+            }
+            if (copied.getObject().isBlank()) {
+                blankNodes.putIfAbsent(copied.getObject(), triple.getObject());
+            }
+            copy.add(copied);
+        });
+        return copy;
+    }
+
+    private static void applyDelta(final DeltaGraph delta, final Graph graph, final Map<Node, RDFTerm> blankNodes) {
+        delta.getDeletions().forEach(triple -> graph.remove((BlankNodeOrIRI) asTerm(triple.getSubject(), blankNodes),
+                    (IRI) rdf.asRDFTerm(triple.getPredicate()), asTerm(triple.getObject(), blankNodes)));
+        delta.getAdditions().forEach(triple -> graph.add((BlankNodeOrIRI) asTerm(triple.getSubject(), blankNodes),
+                    (IRI) rdf.asRDFTerm(triple.getPredicate()), asTerm(triple.getObject(), blankNodes)));
+    }
+
+    private static RDFTerm asTerm(final Node node, final Map<Node, RDFTerm> blankNodes) {
+        // Blank nodes created by the update are new to the graph and are converted directly
+        final RDFTerm original = node.isBlank() ? blankNodes.get(node) : null;
+        return nonNull(original) ? original : rdf.asRDFTerm(node);
+    }
+
+    private static Function<String, String> timedFetch(final IOMetrics metrics) {
+        return profile -> {
+            final long start = nanoTime();
+            boolean success = false;
+            try {
+                final String document = ProfileResolver.fetchHttp(profile);
+                success = true;
+                return document;
+            } finally {
+                metrics.recordProfileFetch(profile, nanoTime() - start, success);
+            }
+        };
+    }
+
+    /**
+     * Parse a SPARQL-Update command, re-using a previously parsed request where possible. A parsed
+     * UpdateRequest is not modified when it is executed, so a cached request may be run concurrently.
+     * The blank nodes in an INSERT DATA block are created when the request is parsed, however, so
+     * such requests are not cached: each execution must insert fresh blank nodes.
+     */
+    private UpdateRequest parseUpdate(final String update, final String base) {
+        final Map.Entry<String, String> key = new SimpleEntry<>(update, base);
+        final UpdateRequest cached = updates.getIfPresent(key);
+        if (nonNull(cached)) {
+            return cached;
+        }
+        final UpdateRequest request = create(update, base);
+        if (!insertsBlankNodes(request)) {
+            updates.put(key, request);
+        }
+        return request;
+    }
+
+    private static boolean insertsBlankNodes(final UpdateRequest request) {
+        return request.getOperations().stream().filter(UpdateDataInsert.class::isInstance)
+            .flatMap(op -> ((UpdateDataInsert) op).getQuads().stream())
+            .anyMatch(quad -> quad.getSubject().isBlank() || quad.getObject().isBlank());
     }
 }
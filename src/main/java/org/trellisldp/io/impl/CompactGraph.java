@@ -0,0 +1,326 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+
+/**
+ * A compact, in-memory graph for buffering triples.
+ *
+ * <p>Each distinct term is stored once, in a dictionary, and triples are stored as packed
+ * integer identifiers. Lookups by subject, predicate or object follow per-term chains, and
+ * duplicate triples are detected with an open-addressing hash table. The per-triple cost is a
+ * handful of array slots rather than the several objects used by the default Jena graph.
+ *
+ * <p>Removed triples leave unused slots behind, so this graph is best suited to data that is
+ * mostly added, such as a graph that is buffered for serialization. It is not thread-safe.
+ *
+ * @author acoburn
+ */
+public class CompactGraph extends GraphBase {
+
+    private static final int NONE = -1;
+    private static final int TOMBSTONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<Node, Integer> dictionary = new HashMap<>();
+
+    private Node[] terms = new Node[INITIAL_CAPACITY];
+    private int[] headS = newChain(INITIAL_CAPACITY);
+    private int[] headP = newChain(INITIAL_CAPACITY);
+    private int[] headO = newChain(INITIAL_CAPACITY);
+    private int termCount;
+
+    private int[] spo = new int[3 * INITIAL_CAPACITY];
+    private int[] nextS = new int[INITIAL_CAPACITY];
+    private int[] nextP = new int[INITIAL_CAPACITY];
+    private int[] nextO = new int[INITIAL_CAPACITY];
+    private int slots;
+
+    // Each entry is a triple slot + 1; zero marks an empty entry
+    private int[] table = new int[2 * INITIAL_CAPACITY];
+    private int tableUsed;
+    private int size;
+
+    @Override
+    public void performAdd(final Triple triple) {
+        final int s = intern(triple.getSubject());
+        final int p = intern(triple.getPredicate());
+        final int o = intern(triple.getObject());
+        if (lookup(s, p, o) != NONE) {
+            return;
+        }
+        if (slots == nextS.length) {
+            final int capacity = slots * 2;
+            spo = copyOf(spo, 3 * capacity);
+            nextS = copyOf(nextS, capacity);
+            nextP = copyOf(nextP, capacity);
+            nextO = copyOf(nextO, capacity);
+        }
+        final int slot = slots++;
+        spo[3 * slot] = s;
+        spo[3 * slot + 1] = p;
+        spo[3 * slot + 2] = o;
+        nextS[slot] = headS[s];
+        headS[s] = slot;
+        nextP[slot] = headP[p];
+        headP[p] = slot;
+        nextO[slot] = headO[o];
+        headO[o] = slot;
+        insert(slot);
+        size++;
+    }
+
+    @Override
+    public void performDelete(final Triple triple) {
+        final Integer s = dictionary.get(triple.getSubject());
+        final Integer p = dictionary.get(triple.getPredicate());
+        final Integer o = dictionary.get(triple.getObject());
+        if (s == null || p == null || o == null) {
+            return;
+        }
+        final int mask = table.length - 1;
+        for (int i = hash(s, p, o) & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] != TOMBSTONE && matches(table[i] - 1, s, p, o)) {
+                spo[3 * (table[i] - 1)] = NONE;
+                table[i] = TOMBSTONE;
+                size--;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        dictionary.clear();
+        terms = new Node[INITIAL_CAPACITY];
+        headS = newChain(INITIAL_CAPACITY);
+        headP = newChain(INITIAL_CAPACITY);
+        headO = newChain(INITIAL_CAPACITY);
+        termCount = 0;
+        spo = new int[3 * INITIAL_CAPACITY];
+        nextS = new int[INITIAL_CAPACITY];
+        nextP = new int[INITIAL_CAPACITY];
+        nextO = new int[INITIAL_CAPACITY];
+        slots = 0;
+        table = new int[2 * INITIAL_CAPACITY];
+        tableUsed = 0;
+        size = 0;
+        getEventManager().notifyEvent(this, GraphEvents.removeAll);
+    }
+
+    @Override
+    protected boolean graphBaseContains(final Triple triple) {
+        if (!triple.isConcrete()) {
+            return super.graphBaseContains(triple);
+        }
+        final Integer s = dictionary.get(triple.getSubject());
+        final Integer p = dictionary.get(triple.getPredicate());
+        final Integer o = dictionary.get(triple.getObject());
+        return s != null && p != null && o != null && lookup(s, p, o) != NONE;
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(final Triple pattern) {
+        final int s = find(pattern.getMatchSubject());
+        final int p = find(pattern.getMatchPredicate());
+        final int o = find(pattern.getMatchObject());
+        if (s == Integer.MIN_VALUE || p == Integer.MIN_VALUE || o == Integer.MIN_VALUE) {
+            return NiceIterator.emptyIterator();
+        }
+        return WrappedIterator.create(new Matches(s, p, o));
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return size;
+    }
+
+    /**
+     * Get the identifier for a term in a pattern
+     * @return NONE for a wildcard, or Integer.MIN_VALUE for a term that is not in the graph
+     */
+    private int find(final Node node) {
+        if (node == null) {
+            return NONE;
+        }
+        final Integer id = dictionary.get(node);
+        return id == null ? Integer.MIN_VALUE : id;
+    }
+
+    private int intern(final Node node) {
+        final Integer existing = dictionary.get(node);
+        if (existing != null) {
+            return existing;
+        }
+        if (termCount == terms.length) {
+            final int capacity = termCount * 2;
+            terms = copyOf(terms, capacity);
+            headS = growChain(headS, capacity);
+            headP = growChain(headP, capacity);
+            headO = growChain(headO, capacity);
+        }
+        final int id = termCount++;
+        terms[id] = node;
+        dictionary.put(node, id);
+        return id;
+    }
+
+    private int lookup(final int s, final int p, final int o) {
+        final int mask = table.length - 1;
+        for (int i = hash(s, p, o) & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] != TOMBSTONE && matches(table[i] - 1, s, p, o)) {
+                return table[i] - 1;
+            }
+        }
+        return NONE;
+    }
+
+    private void insert(final int slot) {
+        if (2 * (tableUsed + 1) > table.length) {
+            rehash();
+        }
+        final int mask = table.length - 1;
+        int i = hash(spo[3 * slot], spo[3 * slot + 1], spo[3 * slot + 2]) & mask;
+        while (table[i] > 0) {
+            i = (i + 1) & mask;
+        }
+        if (table[i] == 0) {
+            tableUsed++;
+        }
+        table[i] = slot + 1;
+    }
+
+    private void rehash() {
+        int capacity = 2 * INITIAL_CAPACITY;
+        while (capacity < 4 * (size + 1)) {
+            capacity *= 2;
+        }
+        table = new int[capacity];
+        tableUsed = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (spo[3 * slot] != NONE) {
+                final int mask = table.length - 1;
+                int i = hash(spo[3 * slot], spo[3 * slot + 1], spo[3 * slot + 2]) & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = slot + 1;
+                tableUsed++;
+            }
+        }
+    }
+
+    private boolean matches(final int slot, final int s, final int p, final int o) {
+        final int base = 3 * slot;
+        return spo[base] != NONE && (s == NONE || spo[base] == s) && (p == NONE || spo[base + 1] == p)
+            && (o == NONE || spo[base + 2] == o);
+    }
+
+    private static int hash(final int s, final int p, final int o) {
+        final int h = (s * 31 + p) * 31 + o;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] newChain(final int capacity) {
+        final int[] chain = new int[capacity];
+        fill(chain, NONE);
+        return chain;
+    }
+
+    private static int[] growChain(final int[] chain, final int capacity) {
+        final int[] grown = copyOf(chain, capacity);
+        fill(grown, chain.length, capacity, NONE);
+        return grown;
+    }
+
+    /**
+     * Iterate over the triples that match a pattern, following the chain for the most selective
+     * bound term, or scanning every slot for an unbound pattern.
+     */
+    private final class Matches implements Iterator<Triple> {
+
+        private final int s;
+        private final int p;
+        private final int o;
+        private final int[] chain;
+        private int slot;
+        private Triple next;
+
+        Matches(final int s, final int p, final int o) {
+            this.s = s;
+            this.p = p;
+            this.o = o;
+            if (s != NONE) {
+                this.chain = nextS;
+                this.slot = headS[s];
+            } else if (o != NONE) {
+                this.chain = nextO;
+                this.slot = headO[o];
+            } else if (p != NONE) {
+                this.chain = nextP;
+                this.slot = headP[p];
+            } else {
+                this.chain = null;
+                this.slot = slots > 0 ? 0 : NONE;
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Triple next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Triple triple = next;
+            advance();
+            return triple;
+        }
+
+        private void advance() {
+            next = null;
+            while (slot != NONE && next == null) {
+                final int current = slot;
+                if (chain == null) {
+                    slot = current + 1 < slots ? current + 1 : NONE;
+                } else {
+                    slot = chain[current];
+                }
+                if (matches(current, s, p, o)) {
+                    final int base = 3 * current;
+                    next = Triple.create(terms[spo[base]], terms[spo[base + 1]], terms[spo[base + 2]]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * A graph wrapper that records the net effect of the changes made through it.
+ *
+ * <p>All changes are applied to the underlying graph. A triple that is added and then removed
+ * again (or removed and then re-added) does not appear in either delta, and changes that have
+ * no effect on the underlying graph are not recorded.
+ *
+ * @author acoburn
+ */
+public class DeltaGraph extends GraphBase {
+
+    private final Graph graph;
+    private final Set<Triple> additions = new LinkedHashSet<>();
+    private final Set<Triple> deletions = new LinkedHashSet<>();
+
+    /**
+     * Create a delta-recording graph
+     * @param graph the underlying graph
+     */
+    public DeltaGraph(final Graph graph) {
+        this.graph = requireNonNull(graph, "The underlying graph may not be null!");
+    }
+
+    /**
+     * Get the triples that were added to the underlying graph
+     * @return the added triples
+     */
+    public Set<Triple> getAdditions() {
+        return unmodifiableSet(additions);
+    }
+
+    /**
+     * Get the triples that were removed from the underlying graph
+     * @return the removed triples
+     */
+    public Set<Triple> getDeletions() {
+        return unmodifiableSet(deletions);
+    }
+
+    @Override
+    public void performAdd(final Triple triple) {
+        if (!graph.contains(triple)) {
+            graph.add(triple);
+            if (!deletions.remove(triple)) {
+                additions.add(triple);
+            }
+        }
+    }
+
+    @Override
+    public void performDelete(final Triple triple) {
+        if (graph.contains(triple)) {
+            graph.delete(triple);
+            if (!additions.remove(triple)) {
+                deletions.add(triple);
+            }
+        }
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(final Triple pattern) {
+        return graph.find(pattern);
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return graph.size();
+    }
+
+    @Override
+    protected PrefixMapping createPrefixMapping() {
+        return graph.getPrefixMapping();
+    }
+}
@@ -15,17 +15,17 @@ package org.trellisldp.io.impl;
 
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
 
-import java.util.Comparator;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.apache.commons.rdf.api.IRI;
@@ -42,12 +42,22 @@ import org.trellisldp.vocabulary.SKOS;
  */
 public class HtmlData {
 
-    private static final Set<IRI> titleCandidates = new HashSet<>(asList(SKOS.prefLabel, RDFS.label, DC.title));
+    private static final int MAX_LABELS = 10000;
+
+    /** Title predicates, in order of preference */
+    private static final List<IRI> titleCandidates = asList(SKOS.prefLabel, RDFS.label, DC.title);
 
     private final List<Triple> triples;
+    private final Iterator<? extends Triple> iterator;
     private final IRI subject;
     private final NamespaceService namespaceService;
     private final Map<String, String> properties;
+    private final Map<String, String> labels = new HashMap<>();
+    private final Map<String, Optional<String>> prefixes = new HashMap<>();
+
+    private List<LabelledTriple> rows;
+    private Iterable<LabelledTriple> streamed;
+    private String title;
 
     /**
      * Create an HTML Data object
@@ -61,16 +71,59 @@ public class HtmlData {
         this.namespaceService = namespaceService;
         this.subject = subject;
         this.triples = triples;
+        this.iterator = null;
+        this.properties = properties;
+    }
+
+    /**
+     * Create an HTML Data object that renders triples in the order in which they are produced
+     *
+     * <p>The triples are read only once, as the page is rendered, so they are neither sorted nor used
+     * for the page title, and a template can iterate over them only once (see {@link #getTriples}).
+     *
+     * @param namespaceService the namespace service
+     * @param subject the subject
+     * @param triples the triples
+     * @param properties additional properties for static resources
+     */
+    public HtmlData(final NamespaceService namespaceService, final IRI subject,
+            final Iterator<? extends Triple> triples, final Map<String, String> properties) {
+        this.namespaceService = namespaceService;
+        this.subject = subject;
+        this.triples = null;
+        this.iterator = triples;
         this.properties = properties;
     }
 
     /**
      * Get the triples
+     *
+     * <p>When the triples are streamed, they can be iterated only once: every call returns the same
+     * single-use {@link Iterable}, so a template section that iterates over the triples a second time
+     * renders no rows.
+     *
      * @return the labelled triples
      */
-    public List<LabelledTriple> getTriples() {
-        return triples.stream().map(labelTriple)
-            .sorted(sortSubjects.thenComparing(sortPredicates).thenComparing(sortObjects)).collect(toList());
+    public Iterable<LabelledTriple> getTriples() {
+        if (nonNull(iterator)) {
+            if (isNull(streamed)) {
+                final Iterator<LabelledTriple> labelled = new Iterator<LabelledTriple>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public LabelledTriple next() {
+                        return labelTriple.apply(iterator.next());
+                    }
+                };
+                streamed = () -> labelled;
+            }
+            return streamed;
+        }
+        load();
+        return rows;
     }
 
     /**
@@ -104,14 +157,36 @@ public class HtmlData {
      * @return a title for the resource
      */
     public String getTitle() {
-        final Map<IRI, List<String>> titles = triples.stream()
-            .filter(triple -> titleCandidates.contains(triple.getPredicate()))
-            .filter(triple -> triple.getObject() instanceof Literal)
-            .collect(groupingBy(Triple::getPredicate, mapping(triple ->
-                            ((Literal) triple.getObject()).getLexicalForm(), toList())));
-        return titleCandidates.stream().filter(titles::containsKey)
-            .map(titles::get).flatMap(List::stream).findFirst()
-            .orElseGet(this::getSubject);
+        if (triples == null) {
+            return getSubject();
+        }
+        load();
+        return title;
+    }
+
+    /**
+     * Label and sort the triples and select a title, in a single pass over the triples.
+     */
+    private void load() {
+        if (nonNull(rows)) {
+            return;
+        }
+        final List<LabelledTriple> labelled = new ArrayList<>(triples.size());
+        String candidate = null;
+        int rank = titleCandidates.size();
+        for (final Triple triple : triples) {
+            if (triple.getObject() instanceof Literal) {
+                final int priority = titleCandidates.indexOf(triple.getPredicate());
+                if (priority >= 0 && priority < rank) {
+                    rank = priority;
+                    candidate = ((Literal) triple.getObject()).getLexicalForm();
+                }
+            }
+            labelled.add(labelTriple.apply(triple));
+        }
+        labelled.sort(LabelledTriple::compare);
+        title = nonNull(candidate) ? candidate : getSubject();
+        rows = labelled;
     }
 
     private String getSubject() {
@@ -129,36 +204,28 @@ public class HtmlData {
     };
 
     private String getLabel(final String iri) {
-        final int lastHash = iri.lastIndexOf('#');
-        String namespace = null;
-        final String qname;
-        if (lastHash != -1) {
-            namespace = iri.substring(0, lastHash + 1);
-            qname = iri.substring(lastHash + 1);
-        } else {
-            final int lastSlash = iri.lastIndexOf('/');
-            if (lastSlash != -1) {
-                namespace = iri.substring(0, lastSlash + 1);
-                qname = iri.substring(lastSlash + 1);
-            } else {
-                qname = "";
-            }
+        final String cached = labels.get(iri);
+        if (nonNull(cached)) {
+            return cached;
         }
-        if (nonNull(namespaceService)) {
-            return ofNullable(namespace).flatMap(namespaceService::getPrefix).map(pre -> pre + ":" + qname)
-                .orElse(iri);
+        final String label = computeLabel(iri);
+        if (labels.size() < MAX_LABELS) {
+            labels.put(iri, label);
         }
-        return iri;
+        return label;
     }
 
-    private static final Comparator<LabelledTriple> sortSubjects = (q1, q2) ->
-        q1.getSubject().compareTo(q2.getSubject());
-
-    private static final Comparator<LabelledTriple> sortPredicates = (q1, q2) ->
-        q1.getPredicate().compareTo(q2.getPredicate());
-
-    private static final Comparator<LabelledTriple> sortObjects = (q1, q2) ->
-        q1.getObject().compareTo(q2.getObject());
+    private String computeLabel(final String iri) {
+        if (namespaceService == null) {
+            return iri;
+        }
+        final int lastHash = iri.lastIndexOf('#');
+        final int split = lastHash != -1 ? lastHash : iri.lastIndexOf('/');
+        if (split == -1) {
+            return iri;
+        }
+        final String namespace = iri.substring(0, split + 1);
+        return prefixes.computeIfAbsent(namespace, namespaceService::getPrefix)
+            .map(pre -> pre + ":" + iri.substring(split + 1)).orElse(iri);
+    }
 }
-
-
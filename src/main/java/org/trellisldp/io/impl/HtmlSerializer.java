@@ -13,22 +13,24 @@
  */
 package org.trellisldp.io.impl;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.apache.commons.rdf.api.IRI;
@@ -40,11 +42,17 @@ import org.trellisldp.api.NamespaceService;
  */
 public class HtmlSerializer {
 
-    private static final MustacheFactory mf = new DefaultMustacheFactory();
+    /** The prefix of the properties that select a template for a profile, e.g. {@code template.profile.<IRI>} */
+    public static final String PROFILE_TEMPLATE = "template.profile.";
 
-    private final Mustache template;
+    private final TemplateRegistry registry = new TemplateRegistry(100);
+    private final String template;
+    private final Map<String, String> profileTemplates;
     private final NamespaceService namespaceService;
     private final Map<String, String> properties;
+    private final boolean streaming;
+    private final int flushInterval;
+    private final int bufferSize;
 
     /**
      * Create a ResourceView object
@@ -55,20 +63,46 @@ public class HtmlSerializer {
     public HtmlSerializer(final NamespaceService namespaceService, final String template,
             final Map<String, String> properties) {
         this.namespaceService = namespaceService;
-        final File tpl = new File(template);
-        if (tpl.exists()) {
-            this.template = mf.compile(template);
-        } else {
-            this.template = mf.compile(getReader(template), template);
-        }
+        this.template = template;
         this.properties = properties;
+        this.streaming = parseBoolean(properties.getOrDefault("html.streaming", "false"));
+        this.flushInterval = max(1, parseInt(properties.getOrDefault("html.flushInterval", "1000")));
+        this.bufferSize = parseInt(properties.getOrDefault("write.bufferSize", "8192"));
+        this.profileTemplates = unmodifiableMap(properties.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(PROFILE_TEMPLATE))
+                .collect(toMap(e -> e.getKey().substring(PROFILE_TEMPLATE.length()), Map.Entry::getValue)));
+        // Compile the templates eagerly, so that a missing template is reported at startup
+        final Set<String> templates = new HashSet<>(profileTemplates.values());
+        templates.add(template);
+        final boolean watch = parseBoolean(properties.getOrDefault("template.watch", "false"));
+        templates.forEach(t -> {
+            registry.get(t);
+            if (watch) {
+                registry.watch(t);
+            }
+        });
     }
 
-    private Reader getReader(final String template) {
-        if (template.startsWith("/")) {
-            return new InputStreamReader(getClass().getResourceAsStream(template), UTF_8);
+    /**
+     * Get the template for a response
+     * @param profiles the requested profiles
+     * @return the template configured for the first of the profiles that has one, or else the default template
+     */
+    public String getTemplate(final IRI... profiles) {
+        for (final IRI profile : profiles) {
+            final String t = profileTemplates.get(profile.getIRIString());
+            if (nonNull(t)) {
+                return t;
+            }
         }
-        return new InputStreamReader(getClass().getResourceAsStream("/" + template), UTF_8);
+        return template;
+    }
+
+    /**
+     * Stop watching templates for changes
+     */
+    public void close() {
+        registry.close();
     }
 
     /**
@@ -78,13 +112,65 @@ public class HtmlSerializer {
      * @param subject the subject
      */
     public void write(final OutputStream out, final Stream<? extends Triple> triples, final IRI subject) {
-        final Writer writer = new OutputStreamWriter(out, UTF_8);
-        try {
-            template
-                .execute(writer, new HtmlData(namespaceService, subject, triples.collect(toList()), properties))
-                .flush();
+        write(out, triples, subject, template);
+    }
+
+    /**
+     * Send the content to an output stream, using a specific template
+     * @param out the output stream
+     * @param triples the triples
+     * @param subject the subject
+     * @param templateName the template path or classpath resource name
+     */
+    public void write(final OutputStream out, final Stream<? extends Triple> triples, final IRI subject,
+            final String templateName) {
+        final Mustache mustache = registry.get(templateName);
+        try (final Writer writer = new PooledWriter(out, bufferSize)) {
+            if (streaming) {
+                final Iterator<? extends Triple> iterator = new FlushingIterator<>(triples.iterator(), writer,
+                        flushInterval);
+                mustache.execute(writer, new HtmlData(namespaceService, subject, iterator, properties));
+            } else {
+                mustache.execute(writer, new HtmlData(namespaceService, subject, triples.collect(toList()),
+                            properties));
+            }
         } catch (final IOException ex) {
             throw new UncheckedIOException(ex);
         }
     }
+
+    /**
+     * An iterator that flushes the writer before the first element and then after every
+     * {@code interval} elements, so that rendered rows reach the client as they are produced.
+     */
+    private static final class FlushingIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+        private final Writer writer;
+        private final int interval;
+        private int count;
+
+        FlushingIterator(final Iterator<T> iterator, final Writer writer, final int interval) {
+            this.iterator = iterator;
+            this.writer = writer;
+            this.interval = interval;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (count++ % interval == 0) {
+                try {
+                    writer.flush();
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return iterator.next();
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Objects.nonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.apache.jena.graph.GraphUtil.listSubjects;
+import static org.apache.jena.graph.Node.ANY;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.github.jsonldjava.core.Context;
+import com.github.jsonldjava.core.JsonLdApi;
+import com.github.jsonldjava.core.JsonLdError;
+import com.github.jsonldjava.core.JsonLdOptions;
+import com.github.jsonldjava.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.jena.atlas.RuntimeIOException;
+import org.apache.jena.graph.Graph;
+import org.slf4j.Logger;
+
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * Compact JSON-LD output with custom, cached contexts.
+ *
+ * <p>Processing a JSON-LD context (parsing it, creating the term definitions and the
+ * inverse context) is expensive, so processed contexts are cached, keyed by the profile IRI.
+ * A cached context is re-processed only if the underlying context document changes.
+ * As with Jena's JSON-LD writer, boolean, integer and double literals are written as native JSON values.
+ *
+ * @author acoburn
+ */
+public class JsonLdCompactor {
+
+    private static final Logger LOGGER = getLogger(JsonLdCompactor.class);
+
+    private final LruCache<String, ProcessedContext> contexts;
+    private final int bufferSize;
+
+    /**
+     * Create a JSON-LD compactor
+     * @param cacheSize the maximum number of processed contexts to cache
+     */
+    public JsonLdCompactor(final int cacheSize) {
+        this(cacheSize, PooledWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a JSON-LD compactor
+     * @param cacheSize the maximum number of processed contexts to cache
+     * @param bufferSize the size of the output buffer, in characters
+     */
+    public JsonLdCompactor(final int cacheSize, final int bufferSize) {
+        this.contexts = new LruCache<>(cacheSize);
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Get a processed context
+     * @param profile the profile IRI
+     * @param document the context document
+     * @return the processed context, if the document could be processed
+     */
+    public Optional<Context> getContext(final String profile, final String document) {
+        final ProcessedContext cached = contexts.getIfPresent(profile);
+        if (nonNull(cached) && cached.source.equals(document)) {
+            return cached.context;
+        }
+        final ProcessedContext processed = new ProcessedContext(document, process(profile, document));
+        contexts.put(profile, processed);
+        return processed.context;
+    }
+
+    /**
+     * Write a graph as compacted JSON-LD
+     * @param output the output stream
+     * @param graph the graph
+     * @param profile the profile IRI, used as the value of the {@code @context} in the output
+     * @param context the processed context
+     */
+    public void write(final OutputStream output, final Graph graph, final String profile, final Context context) {
+        final List<Object> expanded = new ArrayList<>();
+        final NodeObjectStream nodes = new NodeObjectStream(expanded::add, true);
+        listSubjects(graph, ANY, ANY).forEachRemaining(subject ->
+                graph.find(subject, ANY, ANY).forEachRemaining(nodes::triple));
+        nodes.finish();
+
+        final Map<String, Object> document = new LinkedHashMap<>();
+        document.put("@context", profile);
+        try {
+            final Object compacted = new JsonLdApi(new JsonLdOptions()).compact(context, null, expanded, true);
+            if (compacted instanceof Map) {
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> node = (Map<String, Object>) compacted;
+                document.putAll(node);
+            } else if (compacted instanceof List && !((List<?>) compacted).isEmpty()) {
+                document.put("@graph", compacted);
+            }
+        } catch (final JsonLdError ex) {
+            throw new RuntimeRepositoryException(ex);
+        }
+
+        try (final Writer writer = new PooledWriter(output, bufferSize)) {
+            JsonUtils.write(writer, document);
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+
+    private static Optional<Context> process(final String profile, final String document) {
+        try {
+            final Object json = JsonUtils.fromString(document);
+            final Object local = json instanceof Map && ((Map<?, ?>) json).containsKey("@context")
+                ? ((Map<?, ?>) json).get("@context") : json;
+            final Context context = new Context(new JsonLdOptions()).parse(local);
+            // Build the inverse context eagerly, so that the cached context is not modified during compaction
+            context.getInverse();
+            LOGGER.debug("Processed JSON-LD context for profile: {}", profile);
+            return of(context);
+        } catch (final IOException | JsonLdError ex) {
+            LOGGER.warn("Error processing JSON-LD context {}: {}", profile, ex.getMessage());
+            return empty();
+        }
+    }
+
+    private static final class ProcessedContext {
+        private final String source;
+        private final Optional<Context> context;
+
+        private ProcessedContext(final String source, final Optional<Context> context) {
+            this.source = source;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import com.github.jsonldjava.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import org.apache.jena.atlas.RuntimeIOException;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A streaming serializer for expanded JSON-LD.
+ *
+ * <p>Each run of consecutive triples with the same subject is written as a single node
+ * object, directly to the output. A subject that appears in more than one run produces more
+ * than one node object with the same {@code @id}, which is equivalent JSON-LD.
+ *
+ * @author acoburn
+ */
+public class JsonLdStreamWriter extends StreamRDFBase {
+
+    private final Writer writer;
+    private final boolean release;
+    private final NodeObjectStream nodes = new NodeObjectStream(this::writeNode);
+
+    private boolean first = true;
+
+    /**
+     * Create a streaming JSON-LD serializer
+     * @param output the output stream
+     */
+    public JsonLdStreamWriter(final OutputStream output) {
+        this(output, PooledWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a streaming JSON-LD serializer
+     * @param output the output stream
+     * @param bufferSize the size of the output buffer, in characters
+     */
+    public JsonLdStreamWriter(final OutputStream output, final int bufferSize) {
+        this(new PooledWriter(output, bufferSize), true);
+    }
+
+    /**
+     * Create a streaming JSON-LD serializer
+     * @param writer the writer
+     */
+    public JsonLdStreamWriter(final Writer writer) {
+        this(writer, false);
+    }
+
+    private JsonLdStreamWriter(final Writer writer, final boolean release) {
+        this.writer = writer;
+        this.release = release;
+    }
+
+    @Override
+    public void start() {
+        write("[");
+    }
+
+    @Override
+    public void triple(final Triple triple) {
+        nodes.triple(triple);
+    }
+
+    @Override
+    public void quad(final Quad quad) {
+        nodes.quad(quad);
+    }
+
+    @Override
+    public void finish() {
+        nodes.finish();
+        write("]");
+        try {
+            if (release) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+
+    private void writeNode(final Map<String, Object> node) {
+        final StringWriter json = new StringWriter();
+        try {
+            JsonUtils.write(json, node);
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+        if (!first) {
+            write(",");
+        }
+        first = false;
+        write(json.toString());
+    }
+
+    private void write(final String value) {
+        try {
+            writer.write(value);
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+}
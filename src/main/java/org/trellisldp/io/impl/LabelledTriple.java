@@ -17,6 +17,7 @@ import static java.util.Objects.nonNull;
 
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.rdf.api.Triple;
 
 /**
@@ -26,9 +27,12 @@ import org.apache.commons.rdf.api.Triple;
  */
 public class LabelledTriple {
 
-    private final Triple triple;
+    private final String subject;
+    private final String predicate;
+    private final String object;
     private final String predLabel;
     private final String objLabel;
+    private final boolean objectIsIRI;
 
     /**
      * Create a LabelledTriple
@@ -37,9 +41,12 @@ public class LabelledTriple {
      * @param object the label for the object
      */
     public LabelledTriple(final Triple triple, final String predicate, final String object) {
-        this.triple = triple;
+        this.subject = asString(triple.getSubject());
+        this.predicate = triple.getPredicate().getIRIString();
+        this.object = asString(triple.getObject());
         this.predLabel = predicate;
         this.objLabel = object;
+        this.objectIsIRI = triple.getObject() instanceof IRI;
     }
 
     /**
@@ -47,10 +54,7 @@ public class LabelledTriple {
      * @return a string form of the subject
      */
     public String getSubject() {
-        if (triple.getSubject() instanceof IRI) {
-            return ((IRI) triple.getSubject()).getIRIString();
-        }
-        return triple.getSubject().ntriplesString();
+        return subject;
     }
 
     /**
@@ -58,7 +62,7 @@ public class LabelledTriple {
      * @return the string form of the predicate
      */
     public String getPredicate() {
-        return triple.getPredicate().getIRIString();
+        return predicate;
     }
 
     /**
@@ -66,12 +70,7 @@ public class LabelledTriple {
      * @return the string form of the object
      */
     public String getObject() {
-        if (triple.getObject() instanceof Literal) {
-            return ((Literal) triple.getObject()).getLexicalForm();
-        } else if (triple.getObject() instanceof IRI) {
-            return ((IRI) triple.getObject()).getIRIString();
-        }
-        return triple.getObject().ntriplesString();
+        return object;
     }
 
     /**
@@ -101,6 +100,34 @@ public class LabelledTriple {
      * @return true if the object is an IRI; false otherwise
      */
     public Boolean getObjectIsIRI() {
-        return triple.getObject() instanceof IRI;
+        return objectIsIRI;
+    }
+
+    /**
+     * Compare two labelled triples by subject, then predicate, then object
+     * @param t1 the first triple
+     * @param t2 the second triple
+     * @return a negative integer, zero, or a positive integer as the first triple sorts before,
+     *         with, or after the second
+     */
+    public static int compare(final LabelledTriple t1, final LabelledTriple t2) {
+        final int subjects = t1.subject.compareTo(t2.subject);
+        if (subjects != 0) {
+            return subjects;
+        }
+        final int predicates = t1.predicate.compareTo(t2.predicate);
+        if (predicates != 0) {
+            return predicates;
+        }
+        return t1.object.compareTo(t2.object);
+    }
+
+    private static String asString(final RDFTerm term) {
+        if (term instanceof Literal) {
+            return ((Literal) term).getLexicalForm();
+        } else if (term instanceof IRI) {
+            return ((IRI) term).getIRIString();
+        }
+        return term.ntriplesString();
     }
 }
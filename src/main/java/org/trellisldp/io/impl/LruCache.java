@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Objects.nonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A simple, size-bounded cache with least-recently-used eviction.
+ *
+ * <p>Values are computed outside of the cache lock, so a slow loader does not block
+ * lookups for other keys. Null values are not cached.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author acoburn
+ */
+public class LruCache<K, V> {
+
+    private final Map<K, V> cache;
+
+    /**
+     * Create a cache
+     * @param maxSize the maximum number of entries
+     */
+    public LruCache(final int maxSize) {
+        this.cache = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get a value from the cache, computing it if necessary
+     * @param key the key
+     * @param loader a function for computing a missing value
+     * @return the value, which may be null if the loader returns null
+     */
+    public V get(final K key, final Function<K, V> loader) {
+        final V cached = getIfPresent(key);
+        if (nonNull(cached)) {
+            return cached;
+        }
+        final V value = loader.apply(key);
+        if (nonNull(value)) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Get a value from the cache
+     * @param key the key
+     * @return the value, or null if none is cached
+     */
+    public synchronized V getIfPresent(final K key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Add a value to the cache
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(final K key, final V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * Remove a value from the cache
+     * @param key the key
+     */
+    public synchronized void invalidate(final K key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Remove all values from the cache
+     */
+    public synchronized void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Get the number of cached entries
+     * @return the size of the cache
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+}
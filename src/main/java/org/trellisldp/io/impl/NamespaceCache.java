@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+import org.trellisldp.api.NamespaceService;
+
+/**
+ * A local snapshot of the prefix mappings held by a {@link NamespaceService}.
+ *
+ * <p>The snapshot is refreshed from the underlying service once its time-to-live has expired,
+ * or after {@link #invalidate()} is called. Serialized forms of the prefixes, such as an RDF/XML
+ * header or a {@link NamespaceTrie}, are built at most once per snapshot. New namespaces are
+ * registered in batches, and only those namespaces that are absent from the snapshot are sent to
+ * the service.
+ *
+ * @author acoburn
+ */
+public class NamespaceCache {
+
+    private static final Logger LOGGER = getLogger(NamespaceCache.class);
+
+    private final NamespaceService service;
+    private final long ttl;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Create a namespace cache
+     * @param service the namespace service
+     * @param ttl the time, in milliseconds, for which a snapshot is used before it is refreshed
+     */
+    public NamespaceCache(final NamespaceService service, final long ttl) {
+        this.service = requireNonNull(service, "The namespace service may not be null!");
+        this.ttl = ttl;
+    }
+
+    /**
+     * Get the current prefix to namespace mappings
+     * @return the prefix mappings
+     */
+    public Map<String, String> getNamespaces() {
+        return current().prefixes;
+    }
+
+    /**
+     * Get an RDF/XML header that declares the current prefix mappings
+     * @return the RDF/XML header
+     */
+    public RdfXmlHeader getRdfXmlHeader() {
+        final Snapshot current = current();
+        RdfXmlHeader header = current.rdfXmlHeader;
+        if (header == null) {
+            // Concurrent callers may both build a header; either one may be kept
+            header = RdfXmlHeader.of(current.prefixes);
+            current.rdfXmlHeader = header;
+        }
+        return header;
+    }
+
+    /**
+     * Get a trie over the current namespaces
+     * @return the namespace trie
+     */
+    public NamespaceTrie getNamespaceTrie() {
+        final Snapshot current = current();
+        NamespaceTrie trie = current.namespaceTrie;
+        if (trie == null) {
+            trie = new NamespaceTrie(current.prefixes);
+            current.namespaceTrie = trie;
+        }
+        return trie;
+    }
+
+    /**
+     * Register any new namespaces with the underlying service
+     * @param prefixes the prefix to namespace mappings found in a document
+     */
+    public void register(final Map<String, String> prefixes) {
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        final Snapshot current = current();
+        if (current.namespaces.containsAll(prefixes.values())) {
+            return;
+        }
+        synchronized (this) {
+            final Snapshot latest = current();
+            final Map<String, String> added = new HashMap<>(latest.prefixes);
+            final Set<String> known = new HashSet<>(latest.namespaces);
+            prefixes.forEach((prefix, namespace) -> {
+                if (known.add(namespace)) {
+                    LOGGER.debug("Setting prefix ({}) for namespace {}", prefix, namespace);
+                    if (Boolean.TRUE.equals(service.setPrefix(prefix, namespace))) {
+                        added.put(prefix, namespace);
+                    }
+                }
+            });
+            // A namespace that could not be registered is remembered until the next refresh
+            snapshot = new Snapshot(added, known, latest.expires);
+        }
+    }
+
+    /**
+     * Discard the current snapshot, so that the next access reloads it from the underlying service
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        final Snapshot current = snapshot;
+        if (current != null && current.expires > currentTimeMillis()) {
+            return current;
+        }
+        final Map<String, String> prefixes = service.getNamespaces();
+        final Snapshot fresh = new Snapshot(prefixes, new HashSet<>(prefixes.values()), currentTimeMillis() + ttl);
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static final class Snapshot {
+        private final Map<String, String> prefixes;
+        private final Set<String> namespaces;
+        private final long expires;
+        private volatile RdfXmlHeader rdfXmlHeader;
+        private volatile NamespaceTrie namespaceTrie;
+
+        Snapshot(final Map<String, String> prefixes, final Set<String> namespaces, final long expires) {
+            this.prefixes = unmodifiableMap(new HashMap<>(prefixes));
+            this.namespaces = namespaces;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.stream.StreamSupport.stream;
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDstring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+
+/**
+ * A character trie over namespace IRIs, used to find the prefixes that a set of triples actually uses.
+ *
+ * <p>A trie is immutable once built, so it may be shared by concurrent requests.
+ *
+ * @author acoburn
+ */
+public class NamespaceTrie {
+
+    private final TrieNode root = new TrieNode();
+
+    /**
+     * Create a namespace trie
+     * @param prefixes the prefix to namespace mappings
+     */
+    public NamespaceTrie(final Map<String, String> prefixes) {
+        prefixes.forEach((prefix, namespace) -> {
+            TrieNode node = root;
+            for (int i = 0; i < namespace.length(); i++) {
+                node = node.children.computeIfAbsent(namespace.charAt(i), c -> new TrieNode());
+            }
+            if (node.prefix == null) {
+                node.prefix = prefix;
+                node.namespace = namespace;
+            }
+        });
+    }
+
+    /**
+     * Find the prefix for the longest namespace that the IRI starts with
+     * @param iri the IRI
+     * @return the prefix, or null if no namespace matches
+     */
+    public String getPrefix(final String iri) {
+        final TrieNode node = find(iri);
+        return node == null ? null : node.prefix;
+    }
+
+    /**
+     * Record the prefixes used by the IRIs and explicit datatypes in a triple
+     * @param triple the triple
+     * @param used the prefix to namespace mappings found so far
+     */
+    public void collect(final Triple triple, final Map<String, String> used) {
+        collect(triple.getSubject(), used);
+        collect(triple.getPredicate(), used);
+        collect(triple.getObject(), used);
+    }
+
+    /**
+     * Find the prefixes used by a collection of triples
+     * @param triples the triples
+     * @return the prefix to namespace mappings, sorted by prefix
+     */
+    public Map<String, String> getUsedPrefixes(final Iterator<Triple> triples) {
+        final Map<String, String> used = new TreeMap<>();
+        triples.forEachRemaining(triple -> collect(triple, used));
+        return used;
+    }
+
+    /**
+     * Declare the prefixes used by a stream of triples
+     *
+     * <p>Up to {@code lookahead} triples are read ahead, and the prefixes that they use are passed
+     * to {@code declare} before the returned stream is consumed. Any other prefix is declared as the
+     * returned stream is consumed, immediately before the first triple that uses it, so every IRI in
+     * a namespace of the trie may be abbreviated, whatever the order of the triples.
+     *
+     * @param triples the triples
+     * @param lookahead the maximum number of triples to read ahead
+     * @param declare a callback for each used prefix and its namespace
+     * @return a stream that produces all of the original triples, in order
+     */
+    public Stream<Triple> declareUsedPrefixes(final Stream<Triple> triples, final int lookahead,
+            final BiConsumer<String, String> declare) {
+        final Iterator<Triple> iterator = triples.iterator();
+        final List<Triple> buffer = new ArrayList<>();
+        final Map<String, String> used = new TreeMap<>();
+        while (buffer.size() < lookahead && iterator.hasNext()) {
+            final Triple triple = iterator.next();
+            collect(triple, used);
+            buffer.add(triple);
+        }
+        used.forEach(declare);
+        final Stream<Triple> remaining = stream(spliteratorUnknownSize(iterator, ORDERED), false).peek(triple -> {
+            declareNew(triple.getSubject(), used, declare);
+            declareNew(triple.getPredicate(), used, declare);
+            declareNew(triple.getObject(), used, declare);
+        });
+        return Stream.concat(buffer.stream(), remaining).onClose(triples::close);
+    }
+
+    private void collect(final Node node, final Map<String, String> used) {
+        final TrieNode match = match(node);
+        if (match != null) {
+            used.put(match.prefix, match.namespace);
+        }
+    }
+
+    private void declareNew(final Node node, final Map<String, String> declared,
+            final BiConsumer<String, String> declare) {
+        final TrieNode match = match(node);
+        if (match != null && declared.putIfAbsent(match.prefix, match.namespace) == null) {
+            declare.accept(match.prefix, match.namespace);
+        }
+    }
+
+    private TrieNode match(final Node node) {
+        final String iri;
+        if (node.isURI()) {
+            iri = node.getURI();
+        } else if (node.isLiteral() && node.getLiteralLanguage().isEmpty()
+                && !XSDstring.getURI().equals(node.getLiteralDatatypeURI())) {
+            // Simple and language-tagged literals are written without a datatype
+            iri = node.getLiteralDatatypeURI();
+        } else {
+            return null;
+        }
+        return iri == null ? null : find(iri);
+    }
+
+    private TrieNode find(final String iri) {
+        TrieNode node = root;
+        TrieNode match = null;
+        for (int i = 0; i < iri.length() && node != null; i++) {
+            node = node.children.get(iri.charAt(i));
+            if (node != null && node.prefix != null) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private String prefix;
+        private String namespace;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Objects.nonNull;
+import static org.apache.jena.riot.out.NodeFmtLib.encodeBNodeLabel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+
+/**
+ * A StreamRDF sink that groups consecutive triples with the same subject into
+ * expanded JSON-LD node objects. Only the triples for the current subject are held
+ * in memory; each node object is passed to the consumer as soon as it is complete.
+ *
+ * <p>Optionally, {@code xsd:boolean}, {@code xsd:integer} and {@code xsd:double} literals are
+ * written as native JSON values, in the same way as the {@code useNativeTypes} option of a
+ * JSON-LD processor.
+ *
+ * @author acoburn
+ */
+public class NodeObjectStream extends StreamRDFBase {
+
+    private static final String XSD_STRING = "http://www.w3.org/2001/XMLSchema#string";
+    private static final String RDF_LANG_STRING = "http://www.w3.org/1999/02/22-rdf-syntax-ns#langString";
+    private static final String XSD_BOOLEAN = "http://www.w3.org/2001/XMLSchema#boolean";
+    private static final String XSD_INTEGER = "http://www.w3.org/2001/XMLSchema#integer";
+    private static final String XSD_DOUBLE = "http://www.w3.org/2001/XMLSchema#double";
+
+    private final Consumer<Map<String, Object>> consumer;
+    private final boolean useNativeTypes;
+
+    private Node subject;
+    private Map<String, Object> node;
+
+    /**
+     * Create a node object stream
+     * @param consumer a consumer for the completed node objects
+     */
+    public NodeObjectStream(final Consumer<Map<String, Object>> consumer) {
+        this(consumer, false);
+    }
+
+    /**
+     * Create a node object stream
+     * @param consumer a consumer for the completed node objects
+     * @param useNativeTypes whether boolean, integer and double literals are converted to native JSON values
+     */
+    public NodeObjectStream(final Consumer<Map<String, Object>> consumer, final boolean useNativeTypes) {
+        this.consumer = consumer;
+        this.useNativeTypes = useNativeTypes;
+    }
+
+    @Override
+    public void triple(final Triple triple) {
+        if (!triple.getSubject().equals(subject)) {
+            emit();
+            subject = triple.getSubject();
+            node = new LinkedHashMap<>();
+            node.put("@id", id(subject));
+        }
+        final Node object = triple.getObject();
+        if (RDF.Nodes.type.equals(triple.getPredicate()) && !object.isLiteral()) {
+            values("@type").add(id(object));
+        } else {
+            values(triple.getPredicate().getURI()).add(value(object));
+        }
+    }
+
+    @Override
+    public void quad(final Quad quad) {
+        if (quad.isTriple() || quad.isDefaultGraph()) {
+            triple(quad.asTriple());
+        }
+    }
+
+    @Override
+    public void finish() {
+        emit();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> values(final String key) {
+        return (List<Object>) node.computeIfAbsent(key, k -> new ArrayList<>());
+    }
+
+    private void emit() {
+        if (nonNull(node)) {
+            consumer.accept(node);
+            node = null;
+            subject = null;
+        }
+    }
+
+    private static String id(final Node node) {
+        if (node.isBlank()) {
+            return "_:" + encodeBNodeLabel(node.getBlankNodeLabel());
+        }
+        return node.getURI();
+    }
+
+    private Map<String, Object> value(final Node object) {
+        final Map<String, Object> value = new LinkedHashMap<>();
+        if (object.isLiteral()) {
+            final String lexical = object.getLiteralLexicalForm();
+            final String lang = object.getLiteralLanguage();
+            final String datatype = object.getLiteralDatatypeURI();
+            final Object nativeValue = useNativeTypes ? nativeValue(lexical, datatype) : null;
+            if (nonNull(nativeValue)) {
+                value.put("@value", nativeValue);
+            } else {
+                value.put("@value", lexical);
+                if (nonNull(lang) && !lang.isEmpty()) {
+                    value.put("@language", lang);
+                } else if (nonNull(datatype) && !XSD_STRING.equals(datatype) && !RDF_LANG_STRING.equals(datatype)) {
+                    value.put("@type", datatype);
+                }
+            }
+        } else {
+            value.put("@id", id(object));
+        }
+        return value;
+    }
+
+    /**
+     * Convert a literal to a native JSON value, if that can be done without losing its lexical form
+     * (or, for doubles, its value)
+     */
+    private static Object nativeValue(final String lexical, final String datatype) {
+        if (XSD_BOOLEAN.equals(datatype)) {
+            if ("true".equals(lexical)) {
+                return Boolean.TRUE;
+            } else if ("false".equals(lexical)) {
+                return Boolean.FALSE;
+            }
+        } else if (XSD_INTEGER.equals(datatype)) {
+            try {
+                final Long number = Long.valueOf(lexical);
+                return number.toString().equals(lexical) ? number : null;
+            } catch (final NumberFormatException ex) {
+                return null;
+            }
+        } else if (XSD_DOUBLE.equals(datatype)) {
+            try {
+                final Double number = Double.valueOf(lexical);
+                return number.isNaN() || number.isInfinite() ? null : number;
+            } catch (final NumberFormatException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
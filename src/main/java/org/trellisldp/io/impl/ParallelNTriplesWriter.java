@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.Triple;
+import org.apache.jena.atlas.RuntimeIOException;
+import org.apache.jena.atlas.io.IndentedLineBuffer;
+import org.apache.jena.riot.out.NodeFormatter;
+import org.apache.jena.riot.out.NodeFormatterNT;
+
+/**
+ * Writes N-Triples from a stream of triples that is processed in parallel.
+ *
+ * <p>Each part of the stream that is processed by a worker thread is formatted into its own buffer,
+ * which hands whole chunks of complete lines to the output. The buffers belong to a single call,
+ * so nothing is retained by the pool's threads afterwards. The output is valid N-Triples, but the
+ * order of the triples is not preserved.
+ *
+ * @author acoburn
+ */
+public final class ParallelNTriplesWriter {
+
+    /**
+     * Write triples as N-Triples
+     * @param triples the triples
+     * @param output the output stream
+     * @param chunkSize the size, in characters, at which a buffer is written to the output
+     * @param termCacheSize the maximum number of converted terms retained by each buffer
+     */
+    public static void write(final Stream<? extends Triple> triples, final OutputStream output,
+            final int chunkSize, final int termCacheSize) {
+        final Chunk remaining = triples.parallel().unordered().collect(() -> new Chunk(termCacheSize),
+                (chunk, triple) -> {
+                    chunk.append(triple);
+                    if (chunk.length() >= chunkSize) {
+                        chunk.writeTo(output);
+                    }
+                }, (chunk, other) -> other.writeTo(output));
+        remaining.writeTo(output);
+        try {
+            output.flush();
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+
+    private static final class Chunk {
+
+        private final IndentedLineBuffer buffer = new IndentedLineBuffer();
+        private final NodeFormatter formatter = new NodeFormatterNT();
+        private final TripleConverter converter;
+
+        Chunk(final int termCacheSize) {
+            this.converter = new TripleConverter(termCacheSize);
+        }
+
+        void append(final Triple triple) {
+            final org.apache.jena.graph.Triple t = converter.apply(triple);
+            formatter.format(buffer, t.getSubject());
+            buffer.print(' ');
+            formatter.format(buffer, t.getPredicate());
+            buffer.print(' ');
+            formatter.format(buffer, t.getObject());
+            buffer.print(" .");
+            buffer.println();
+        }
+
+        int length() {
+            return buffer.getBuffer().length();
+        }
+
+        void writeTo(final OutputStream output) {
+            if (length() == 0) {
+                return;
+            }
+            final byte[] bytes = buffer.toString().getBytes(UTF_8);
+            buffer.clear();
+            try {
+                synchronized (output) {
+                    output.write(bytes);
+                }
+            } catch (final IOException ex) {
+                throw new RuntimeIOException(ex);
+            }
+        }
+    }
+
+    private ParallelNTriplesWriter() {
+        // prevent instantiation
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.isNull;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.UUID.randomUUID;
+import static java.util.stream.StreamSupport.stream;
+import static org.apache.jena.graph.NodeFactory.createBlankNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * A parallel parser for line-based RDF syntaxes (N-Triples and N-Quads).
+ *
+ * <p>The input is split into chunks at line boundaries, and the chunks are parsed on a
+ * fork-join pool. Only a small, fixed number of chunks is in flight at any time, so memory
+ * use is bounded by the chunk size and the parallelism, not by the size of the input.
+ * Blank node labels are scoped to a single call, so a label that appears in more than one
+ * chunk still denotes the same blank node.
+ *
+ * @author acoburn
+ */
+public final class ParallelParser {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Parse a line-based input stream in parallel
+     * @param input the input stream
+     * @param lang the RDF language, which must be line-based
+     * @param chunkSize the approximate size of each chunk, in bytes
+     * @param ordered whether the triples must be returned in the order of the input
+     * @return a stream of triples; parse errors are thrown as a {@link RuntimeRepositoryException}
+     *         while the stream is being consumed
+     */
+    public static Stream<Triple> parse(final InputStream input, final Lang lang, final int chunkSize,
+            final boolean ordered) {
+        final ChunkIterator iterator = new ChunkIterator(input, lang, max(1024, chunkSize), ordered);
+        final int characteristics = ordered ? ORDERED | NONNULL : NONNULL;
+        return stream(spliteratorUnknownSize(iterator, characteristics), false).onClose(iterator::close);
+    }
+
+    private static final class ChunkIterator implements Iterator<Triple> {
+
+        private final InputStream input;
+        private final Lang lang;
+        private final int chunkSize;
+        private final boolean ordered;
+        private final int window = 2 * pool.getParallelism();
+        private final String scope = randomUUID().toString().replace("-", "");
+        private final Deque<Future<List<Triple>>> pending = new ArrayDeque<>();
+        private final CompletionService<List<Triple>> completion = new ExecutorCompletionService<>(pool);
+
+        private byte[] carry = new byte[0];
+        private boolean eof;
+        private int inFlight;
+        private Iterator<Triple> current = emptyIterator();
+
+        ChunkIterator(final InputStream input, final Lang lang, final int chunkSize, final boolean ordered) {
+            this.input = input;
+            this.lang = lang;
+            this.chunkSize = chunkSize;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                fill();
+                if (inFlight == 0) {
+                    return false;
+                }
+                current = take().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Triple next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+        }
+
+        private void fill() {
+            while (inFlight < window) {
+                final byte[] chunk = readChunk();
+                if (isNull(chunk)) {
+                    return;
+                }
+                final Callable<List<Triple>> task = () -> parseChunk(chunk);
+                // Every submitted chunk is tracked, so that it can be cancelled when the stream is closed
+                pending.add(ordered ? pool.submit(task) : completion.submit(task));
+                inFlight++;
+            }
+        }
+
+        private List<Triple> take() {
+            try {
+                final Future<List<Triple>> future = ordered ? pending.poll() : completion.take();
+                if (!ordered) {
+                    pending.remove(future);
+                }
+                inFlight--;
+                return future.get();
+            } catch (final ExecutionException ex) {
+                close();
+                throw new RuntimeRepositoryException(ex.getCause());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeRepositoryException(ex);
+            }
+        }
+
+        private List<Triple> parseChunk(final byte[] chunk) {
+            final List<Triple> triples = new ArrayList<>();
+            RDFParser.source(new ByteArrayInputStream(chunk)).lang(lang)
+                .labelToNode(LabelToNode.createUseLabelAsGiven()).parse(new StreamRDFBase() {
+                    @Override
+                    public void triple(final Triple triple) {
+                        triples.add(Triple.create(scoped(triple.getSubject()), triple.getPredicate(),
+                                    scoped(triple.getObject())));
+                    }
+
+                    @Override
+                    public void quad(final Quad quad) {
+                        if (quad.isTriple() || quad.isDefaultGraph()) {
+                            triple(quad.asTriple());
+                        }
+                    }
+                });
+            return triples;
+        }
+
+        private Node scoped(final Node node) {
+            if (node.isBlank()) {
+                return createBlankNode(scope + node.getBlankNodeLabel());
+            }
+            return node;
+        }
+
+        /**
+         * Read the next chunk of input, ending at a line boundary (either a LF or a CR)
+         * @return the chunk, or null at the end of the input
+         */
+        private byte[] readChunk() {
+            if (eof && carry.length == 0) {
+                return null;
+            }
+            byte[] buffer = copyOf(carry, carry.length + chunkSize);
+            int length = carry.length;
+            try {
+                while (true) {
+                    while (length < buffer.length && !eof) {
+                        final int read = input.read(buffer, length, buffer.length - length);
+                        if (read < 0) {
+                            eof = true;
+                        } else {
+                            length += read;
+                        }
+                    }
+                    if (eof) {
+                        carry = new byte[0];
+                        return length == 0 ? null : copyOf(buffer, length);
+                    }
+                    for (int i = length - 1; i >= 0; i--) {
+                        if (buffer[i] == '\n' || buffer[i] == '\r') {
+                            carry = copyOfRange(buffer, i + 1, length);
+                            return copyOf(buffer, i + 1);
+                        }
+                    }
+                    // A single line is longer than the buffer
+                    buffer = copyOf(buffer, buffer.length * 2);
+                }
+            } catch (final IOException ex) {
+                throw new RuntimeRepositoryException(ex);
+            }
+        }
+    }
+
+    private ParallelParser() {
+        // prevent instantiation
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.charset.CodingErrorAction.REPLACE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * A buffered UTF-8 writer whose character and byte buffers are reused by later writers on the
+ * same thread.
+ *
+ * <p>Closing this writer flushes it and returns its buffers to the pool; the underlying output
+ * stream is not closed. A writer that is never closed simply leaves its buffers to the garbage
+ * collector.
+ *
+ * @author acoburn
+ */
+public class PooledWriter extends Writer {
+
+    /** The default buffer size, in characters */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<Buffers> pool = new ThreadLocal<>();
+
+    private final OutputStream output;
+
+    private Buffers buffers;
+    private int position;
+
+    /**
+     * Create a pooled writer with the default buffer size
+     * @param output the output stream
+     */
+    public PooledWriter(final OutputStream output) {
+        this(output, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a pooled writer
+     * @param output the output stream
+     * @param bufferSize the buffer size, in characters
+     */
+    public PooledWriter(final OutputStream output, final int bufferSize) {
+        this.output = requireNonNull(output, "The output stream may not be null!");
+        final Buffers pooled = pool.get();
+        if (nonNull(pooled) && pooled.chars.length == bufferSize) {
+            pool.remove();
+            this.buffers = pooled;
+        } else {
+            this.buffers = new Buffers(max(16, bufferSize));
+        }
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        ensureOpen();
+        if (position == buffers.chars.length) {
+            drain(false);
+        }
+        buffers.chars[position++] = (char) c;
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (position == buffers.chars.length) {
+                drain(false);
+            }
+            final int count = min(remaining, buffers.chars.length - position);
+            System.arraycopy(cbuf, offset, buffers.chars, position, count);
+            position += count;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (position == buffers.chars.length) {
+                drain(false);
+            }
+            final int count = min(remaining, buffers.chars.length - position);
+            str.getChars(offset, offset + count, buffers.chars, position);
+            position += count;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drain(false);
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (nonNull(buffers)) {
+            drain(true);
+            output.flush();
+            buffers.encoder.reset();
+            pool.set(buffers);
+            buffers = null;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (isNull(buffers)) {
+            throw new IOException("Writer closed");
+        }
+    }
+
+    private void drain(final boolean endOfInput) throws IOException {
+        final CharBuffer in = CharBuffer.wrap(buffers.chars, 0, position);
+        final ByteBuffer out = ByteBuffer.wrap(buffers.bytes);
+        CoderResult result = buffers.encoder.encode(in, out, endOfInput);
+        while (result.isOverflow()) {
+            writeBytes(out);
+            result = buffers.encoder.encode(in, out, endOfInput);
+        }
+        if (endOfInput) {
+            while (buffers.encoder.flush(out).isOverflow()) {
+                writeBytes(out);
+            }
+        }
+        writeBytes(out);
+        // Carry an incomplete surrogate pair over to the next buffer
+        position = in.remaining();
+        System.arraycopy(buffers.chars, in.position(), buffers.chars, 0, position);
+    }
+
+    private void writeBytes(final ByteBuffer out) throws IOException {
+        if (out.position() > 0) {
+            output.write(buffers.bytes, 0, out.position());
+            out.clear();
+        }
+    }
+
+    private static final class Buffers {
+        private final char[] chars;
+        private final byte[] bytes;
+        private final CharsetEncoder encoder = UTF_8.newEncoder().onMalformedInput(REPLACE)
+            .onUnmappableCharacter(REPLACE);
+
+        Buffers(final int size) {
+            this.chars = new char[size];
+            this.bytes = new byte[size];
+        }
+    }
+}
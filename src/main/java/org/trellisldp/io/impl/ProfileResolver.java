@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.jena.atlas.web.TypedInputStream;
+import org.apache.jena.riot.web.HttpOp;
+import org.slf4j.Logger;
+
+/**
+ * Resolve JSON-LD profile documents without blocking request threads on slow hosts.
+ *
+ * <p>Documents are fetched on a small pool of background threads. Concurrent requests
+ * for the same profile share a single fetch; callers wait at most the configured timeout
+ * for a document that has not been fetched before. Once a document is available, it is
+ * served immediately, and a stale document is refreshed in the background while the
+ * stale copy continues to be served. Failures are cached for a (shorter) period, so that
+ * an unavailable host is not contacted on every request.
+ *
+ * <p>HTTP fetches are bounded by connect and read timeouts, so that a host that does not respond
+ * cannot hold a background thread, or block later fetches of the same profile, indefinitely.
+ *
+ * @author acoburn
+ */
+public class ProfileResolver {
+
+    private static final Logger LOGGER = getLogger(ProfileResolver.class);
+
+    /** The connect and read timeout, in milliseconds, for fetching a profile over HTTP */
+    public static final int HTTP_TIMEOUT = 10000;
+
+    private static final String ACCEPT = "application/ld+json, application/json;q=0.9";
+
+    private static final HttpClient client = HttpClients.custom().useSystemProperties()
+        .setDefaultRequestConfig(RequestConfig.custom().setConnectTimeout(HTTP_TIMEOUT)
+                .setConnectionRequestTimeout(HTTP_TIMEOUT).setSocketTimeout(HTTP_TIMEOUT).build())
+        .build();
+
+    private static final ExecutorService executor = newFixedThreadPool(4, runnable -> {
+        final Thread thread = new Thread(runnable, "trellis-profile-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<String, String> fetcher;
+    private final long timeout;
+    private final long refreshAfter;
+    private final long negativeTtl;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<String>> fetches = new ConcurrentHashMap<>();
+
+    /**
+     * Create a profile resolver that fetches documents over HTTP
+     * @param timeout the maximum time, in milliseconds, to wait for a document that is not yet cached
+     * @param refreshAfter the time, in milliseconds, after which a document is refreshed
+     * @param negativeTtl the time, in milliseconds, for which a failed fetch is cached
+     */
+    public ProfileResolver(final long timeout, final long refreshAfter, final long negativeTtl) {
+        this(ProfileResolver::fetchHttp, timeout, refreshAfter, negativeTtl);
+    }
+
+    /**
+     * Create a profile resolver
+     * @param fetcher a function that retrieves a profile document; it may return null or throw
+     *                an exception when the document is not available, and it should not block
+     *                indefinitely, since only one fetch per profile runs at a time
+     * @param timeout the maximum time, in milliseconds, to wait for a document that is not yet cached
+     * @param refreshAfter the time, in milliseconds, after which a document is refreshed
+     * @param negativeTtl the time, in milliseconds, for which a failed fetch is cached
+     */
+    public ProfileResolver(final Function<String, String> fetcher, final long timeout, final long refreshAfter,
+            final long negativeTtl) {
+        this.fetcher = fetcher;
+        this.timeout = timeout;
+        this.refreshAfter = refreshAfter;
+        this.negativeTtl = negativeTtl;
+    }
+
+    /**
+     * Resolve a profile document
+     * @param profile the profile IRI
+     * @return the profile document, or null if it is not available within the timeout
+     */
+    public String resolve(final String profile) {
+        final Entry entry = entries.get(profile);
+        if (nonNull(entry)) {
+            if (nonNull(entry.document)) {
+                if (entry.isExpired()) {
+                    LOGGER.debug("Refreshing stale profile {}", profile);
+                    startFetch(profile);
+                }
+                return entry.document;
+            } else if (!entry.isExpired()) {
+                return null;
+            }
+        }
+
+        try {
+            return startFetch(profile).get(timeout, MILLISECONDS);
+        } catch (final TimeoutException ex) {
+            LOGGER.warn("Timed out waiting for profile {}", profile);
+        } catch (final ExecutionException ex) {
+            LOGGER.warn("Error fetching profile {}: {}", profile, ex.getCause().getMessage());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a document for a profile is held, whether or not it is due to be refreshed
+     * @param profile the profile IRI
+     * @return true if a document can be served without waiting for a fetch
+     */
+    public boolean isCached(final String profile) {
+        final Entry entry = entries.get(profile);
+        return nonNull(entry) && nonNull(entry.document);
+    }
+
+    private CompletableFuture<String> startFetch(final String profile) {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final CompletableFuture<String> existing = fetches.putIfAbsent(profile, future);
+        if (nonNull(existing)) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                final String document = fetcher.apply(profile);
+                if (nonNull(document)) {
+                    entries.put(profile, new Entry(document, refreshAfter));
+                } else {
+                    failed(profile);
+                }
+                future.complete(document);
+            } catch (final RuntimeException ex) {
+                failed(profile);
+                future.completeExceptionally(ex);
+            } finally {
+                fetches.remove(profile, future);
+            }
+        });
+        return future;
+    }
+
+    private void failed(final String profile) {
+        // Keep serving a stale document, if there is one, but don't retry until the negative TTL has passed
+        final Entry stale = entries.get(profile);
+        entries.put(profile, new Entry(nonNull(stale) ? stale.document : null, negativeTtl));
+    }
+
+    /**
+     * Fetch a profile document over HTTP, waiting at most {@link #HTTP_TIMEOUT} milliseconds to
+     * connect and between reads
+     * @param profile the profile IRI
+     * @return the profile document, or null if there is no such document
+     */
+    public static String fetchHttp(final String profile) {
+        try (final TypedInputStream res = HttpOp.execHttpGet(profile, ACCEPT, client, null)) {
+            // A 404 response produces no stream
+            if (isNull(res)) {
+                return null;
+            }
+            return IOUtils.toString(res.getInputStream(), UTF_8);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Entry {
+        private final String document;
+        private final long expires;
+
+        private Entry(final String document, final long ttl) {
+            this.document = document;
+            this.expires = currentTimeMillis() + ttl;
+        }
+
+        private boolean isExpired() {
+            return currentTimeMillis() >= expires;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.jena.util.XMLChar;
+
+/**
+ * The opening {@code rdf:RDF} element of an RDF/XML document, along with the namespace declarations
+ * that it contains.
+ *
+ * <p>A header is immutable, so a header built from a snapshot of the namespace service can be
+ * shared by every RDF/XML response until the namespaces change.
+ *
+ * @author acoburn
+ */
+public final class RdfXmlHeader {
+
+    static final String RDF_NS = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+
+    private final Map<String, String> namespaces;
+    private final String header;
+
+    /**
+     * Create an RDF/XML header
+     * @param prefixes the prefix to namespace mappings; prefixes that cannot be used as XML
+     *                 namespace prefixes are skipped
+     * @return the header
+     */
+    public static RdfXmlHeader of(final Map<String, String> prefixes) {
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put(RDF_NS, "rdf");
+        prefixes.forEach((prefix, namespace) -> {
+            if (isValidPrefix(prefix) && !namespaces.containsValue(prefix)) {
+                namespaces.putIfAbsent(namespace, prefix);
+            }
+        });
+        return new RdfXmlHeader(namespaces);
+    }
+
+    /**
+     * Create an RDF/XML header
+     * @param namespaces the namespace to prefix mappings
+     */
+    RdfXmlHeader(final Map<String, String> namespaces) {
+        this.namespaces = unmodifiableMap(new HashMap<>(namespaces));
+        final StringBuilder builder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rdf:RDF");
+        this.namespaces.forEach((namespace, prefix) -> builder.append("\n    xmlns:").append(prefix).append("=\"")
+                .append(RdfXmlStreamWriter.attr(namespace)).append("\""));
+        this.header = builder.append(">\n").toString();
+    }
+
+    /**
+     * Get the namespace to prefix mappings declared in the header
+     * @return the namespace mappings
+     */
+    public Map<String, String> getNamespaces() {
+        return namespaces;
+    }
+
+    /**
+     * Get the serialized header
+     * @return the header
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    static boolean isValidPrefix(final String prefix) {
+        return XMLChar.isValidNCName(prefix) && !prefix.toLowerCase().startsWith("xml");
+    }
+}
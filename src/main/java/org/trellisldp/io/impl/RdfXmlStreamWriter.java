@@ -0,0 +1,275 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Objects.nonNull;
+import static org.apache.jena.riot.out.NodeFmtLib.encodeBNodeLabel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.jena.atlas.RuntimeIOException;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.impl.Util;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A streaming RDF/XML serializer.
+ *
+ * <p>Consecutive triples with the same subject are grouped into a single {@code rdf:Description}
+ * element; no other state is kept, so memory use does not depend on the size of the graph. Any
+ * prefixes must be supplied before the first triple.
+ *
+ * @author acoburn
+ */
+public class RdfXmlStreamWriter extends StreamRDFBase {
+
+    private static final String RDF_NS = RdfXmlHeader.RDF_NS;
+    private static final String XSD_STRING = "http://www.w3.org/2001/XMLSchema#string";
+    private static final String RDF_LANG_STRING = RDF_NS + "langString";
+
+    private final Writer writer;
+    private final boolean release;
+    private final Map<String, String> namespaces;
+    private final RdfXmlHeader header;
+
+    private boolean started;
+    private Node subject;
+
+    /**
+     * Create a streaming RDF/XML serializer
+     * @param output the output stream
+     */
+    public RdfXmlStreamWriter(final OutputStream output) {
+        this(output, PooledWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a streaming RDF/XML serializer
+     * @param output the output stream
+     * @param bufferSize the size of the output buffer, in characters
+     */
+    public RdfXmlStreamWriter(final OutputStream output, final int bufferSize) {
+        this(new PooledWriter(output, bufferSize), true, null);
+    }
+
+    /**
+     * Create a streaming RDF/XML serializer with a prepared header
+     *
+     * <p>The namespaces declared in the header are used for the entire document, and any
+     * {@link #prefix} calls are ignored.
+     *
+     * @param output the output stream
+     * @param bufferSize the size of the output buffer, in characters
+     * @param header the document header
+     */
+    public RdfXmlStreamWriter(final OutputStream output, final int bufferSize, final RdfXmlHeader header) {
+        this(new PooledWriter(output, bufferSize), true, header);
+    }
+
+    /**
+     * Create a streaming RDF/XML serializer
+     * @param writer the writer
+     */
+    public RdfXmlStreamWriter(final Writer writer) {
+        this(writer, false, null);
+    }
+
+    private RdfXmlStreamWriter(final Writer writer, final boolean release, final RdfXmlHeader header) {
+        this.writer = writer;
+        this.release = release;
+        this.header = header;
+        if (nonNull(header)) {
+            this.namespaces = header.getNamespaces();
+        } else {
+            this.namespaces = new HashMap<>();
+            this.namespaces.put(RDF_NS, "rdf");
+        }
+    }
+
+    @Override
+    public void prefix(final String prefix, final String iri) {
+        if (!started && header == null && RdfXmlHeader.isValidPrefix(prefix)
+                && !namespaces.containsValue(prefix)) {
+            namespaces.putIfAbsent(iri, prefix);
+        }
+    }
+
+    @Override
+    public void triple(final Triple triple) {
+        startDocument();
+        if (!triple.getSubject().equals(subject)) {
+            endDescription();
+            subject = triple.getSubject();
+            write("  <rdf:Description ");
+            write(subject.isBlank() ? "rdf:nodeID" : "rdf:about");
+            write("=\"");
+            write(subject.isBlank() ? encodeBNodeLabel(subject.getBlankNodeLabel()) : attr(subject.getURI()));
+            write("\">\n");
+        }
+        writeProperty(triple.getPredicate(), triple.getObject());
+    }
+
+    @Override
+    public void quad(final Quad quad) {
+        if (quad.isTriple() || quad.isDefaultGraph()) {
+            triple(quad.asTriple());
+        }
+    }
+
+    @Override
+    public void finish() {
+        startDocument();
+        endDescription();
+        write("</rdf:RDF>\n");
+        try {
+            if (release) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+
+    private void startDocument() {
+        if (!started) {
+            started = true;
+            write(nonNull(header) ? header.getHeader() : new RdfXmlHeader(namespaces).getHeader());
+        }
+    }
+
+    private void endDescription() {
+        if (nonNull(subject)) {
+            write("  </rdf:Description>\n");
+            subject = null;
+        }
+    }
+
+    private void writeProperty(final Node predicate, final Node object) {
+        final String iri = predicate.getURI();
+        final int split = Util.splitNamespaceXML(iri);
+        if (split == iri.length()) {
+            throw new RiotException("Predicate cannot be serialized as RDF/XML: " + iri);
+        }
+        final String namespace = iri.substring(0, split);
+        final String prefix = namespaces.get(namespace);
+        final String element = (nonNull(prefix) ? prefix : "ns0") + ":" + iri.substring(split);
+
+        write("    <");
+        write(element);
+        if (prefix == null) {
+            write(" xmlns:ns0=\"");
+            write(attr(namespace));
+            write("\"");
+        }
+
+        if (object.isURI()) {
+            write(" rdf:resource=\"");
+            write(attr(object.getURI()));
+            write("\"/>\n");
+        } else if (object.isBlank()) {
+            write(" rdf:nodeID=\"");
+            write(encodeBNodeLabel(object.getBlankNodeLabel()));
+            write("\"/>\n");
+        } else {
+            final String lang = object.getLiteralLanguage();
+            final String datatype = object.getLiteralDatatypeURI();
+            if (nonNull(lang) && !lang.isEmpty()) {
+                write(" xml:lang=\"");
+                write(attr(lang));
+                write("\"");
+            } else if (nonNull(datatype) && !XSD_STRING.equals(datatype) && !RDF_LANG_STRING.equals(datatype)) {
+                write(" rdf:datatype=\"");
+                write(attr(datatype));
+                write("\"");
+            }
+            write(">");
+            write(text(object.getLiteralLexicalForm()));
+            write("</");
+            write(element);
+            write(">\n");
+        }
+    }
+
+    private void write(final String value) {
+        try {
+            writer.write(value);
+        } catch (final IOException ex) {
+            throw new RuntimeIOException(ex);
+        }
+    }
+
+    private static String text(final String value) {
+        return escape(value, false);
+    }
+
+    static String attr(final String value) {
+        return escape(value, true);
+    }
+
+    private static String escape(final String value, final boolean attribute) {
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final String replacement;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = attribute ? "&quot;" : null;
+                    break;
+                case '\r':
+                    replacement = "&#xD;";
+                    break;
+                case '\n':
+                    replacement = attribute ? "&#xA;" : null;
+                    break;
+                case '\t':
+                    replacement = attribute ? "&#x9;" : null;
+                    break;
+                default:
+                    if (c < 0x20) {
+                        throw new RiotException("Literal cannot be serialized as XML 1.0: illegal character");
+                    }
+                    replacement = null;
+            }
+            if (nonNull(replacement) && builder == null) {
+                builder = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (nonNull(builder)) {
+                if (nonNull(replacement)) {
+                    builder.append(replacement);
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return nonNull(builder) ? builder.toString() : value;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.nonNull;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.StreamSupport.stream;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * Merges several streams, which are consumed concurrently, into a single stream.
+ *
+ * <p>Each source stream is drained on its own thread, and its elements are handed to the consumer
+ * in chunks through a bounded queue, so no source is ever buffered in full. Elements from a single
+ * source keep their relative order, and each chunk holds elements from a single source, but chunks
+ * from different sources may be interleaved.
+ *
+ * <p>At most {@link #MAX_THREADS} sources, across all merges, are drained at once; any further
+ * sources are drained as threads become free.
+ *
+ * @author acoburn
+ */
+public final class StreamMerger {
+
+    /** The maximum number of sources that are drained at the same time */
+    public static final int MAX_THREADS = max(4, 2 * getRuntime().availableProcessors());
+
+    private static final ExecutorService executor = newExecutor();
+
+    /**
+     * Merge streams concurrently
+     * @param sources the source streams
+     * @param chunkSize the maximum number of elements in a chunk
+     * @param capacity the maximum number of chunks held in memory
+     * @param <T> the element type
+     * @return a stream of all the elements of the sources; an error from any source is thrown as a
+     *         {@link RuntimeRepositoryException} while the stream is being consumed. Callers that do
+     *         not consume the entire stream should close it, so that the producer threads are released.
+     */
+    public static <T> Stream<T> merge(final List<? extends Stream<? extends T>> sources, final int chunkSize,
+            final int capacity) {
+        final Merge<T> merge = new Merge<>(sources.size(), max(1, chunkSize), max(1, capacity));
+        final List<Future<?>> tasks = new ArrayList<>();
+        sources.forEach(source -> tasks.add(executor.submit(() -> merge.drain(source))));
+        return stream(spliteratorUnknownSize(merge, NONNULL), false).onClose(() -> {
+            merge.close();
+            tasks.forEach(task -> task.cancel(true));
+            sources.forEach(Stream::close);
+        });
+    }
+
+    private static ExecutorService newExecutor() {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60L, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "trellis-stream-merger");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static final class Merge<T> implements Iterator<T> {
+
+        private final List<T> end = new ArrayList<>(0);
+        private final BlockingQueue<List<T>> queue;
+        private final AtomicInteger remaining;
+        private final int chunkSize;
+
+        private Iterator<T> current = emptyIterator();
+        private boolean done;
+        private volatile boolean closed;
+        private volatile Throwable error;
+
+        Merge(final int sources, final int chunkSize, final int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.remaining = new AtomicInteger(sources);
+            this.chunkSize = chunkSize;
+            if (sources == 0) {
+                done = true;
+            }
+        }
+
+        void drain(final Stream<? extends T> source) {
+            try {
+                final List<List<T>> chunk = new ArrayList<>(1);
+                chunk.add(new ArrayList<>(chunkSize));
+                source.forEachOrdered(element -> {
+                    chunk.get(0).add(element);
+                    if (chunk.get(0).size() >= chunkSize) {
+                        put(chunk.get(0));
+                        chunk.set(0, new ArrayList<>(chunkSize));
+                    }
+                });
+                if (!chunk.get(0).isEmpty()) {
+                    put(chunk.get(0));
+                }
+            } catch (final CancellationException ex) {
+                // The consumer has closed the stream
+                return;
+            } catch (final Throwable ex) {
+                // Errors must reach the consumer too, or it would wait for this source forever
+                error = ex;
+                closed = true;
+                queue.clear();
+                queue.offer(end);
+                return;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                put(end);
+            }
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (done) {
+                    return false;
+                }
+                final List<T> next = take();
+                if (next == end || nonNull(error)) {
+                    done = true;
+                    if (nonNull(error)) {
+                        throw new RuntimeRepositoryException(error);
+                    }
+                    return false;
+                }
+                current = next.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private void put(final List<T> elements) {
+            try {
+                while (!closed) {
+                    if (queue.offer(elements, 100L, MILLISECONDS)) {
+                        return;
+                    }
+                }
+                if (elements != end) {
+                    throw new CancellationException("Merged stream closed");
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while merging");
+            }
+        }
+
+        private List<T> take() {
+            try {
+                return queue.take();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeRepositoryException(ex);
+            }
+        }
+    }
+
+    private StreamMerger() {
+        // prevent instantiation
+    }
+}
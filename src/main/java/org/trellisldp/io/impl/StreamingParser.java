@@ -0,0 +1,259 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.lang.Math.max;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.nonNull;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.StreamSupport.stream;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * A parser that hands triples to the consumer as they are produced, rather than
+ * materializing the entire graph in memory. Parsing happens on a background thread
+ * and triples are passed through a bounded queue, so heap use does not depend on the
+ * size of the input.
+ *
+ * <p>At most {@link #MAX_THREADS} inputs are parsed at once; further inputs wait for a free
+ * thread. A parser thread is released when its stream is closed or fully consumed, or, if the
+ * consumer abandons the stream without closing it, once the stream has been garbage collected.
+ *
+ * @author acoburn
+ */
+public final class StreamingParser {
+
+    private static final Logger LOGGER = getLogger(StreamingParser.class);
+
+    private static final int BATCH_SIZE = 256;
+
+    /** The maximum number of inputs that are parsed at the same time */
+    public static final int MAX_THREADS = max(4, 2 * getRuntime().availableProcessors());
+
+    private static final ExecutorService executor = newExecutor();
+
+    /**
+     * Parse an input stream lazily
+     * @param input the input stream
+     * @param base the base IRI, may be null
+     * @param lang the RDF language
+     * @param prefixes a consumer for any prefix declarations found in the input; this is called from the parser thread
+     * @param bufferSize the maximum number of parsed triples held in memory
+     * @return a stream of triples; parse errors are thrown as a {@link RuntimeRepositoryException}
+     *         while the stream is being consumed. Callers that do not consume the entire stream
+     *         should close it, so that the parser thread is released promptly.
+     */
+    public static Stream<Triple> parse(final InputStream input, final String base, final Lang lang,
+            final BiConsumer<String, String> prefixes, final int bufferSize) {
+        final Pipe pipe = new Pipe(max(1, bufferSize / BATCH_SIZE), prefixes);
+        final Iterator<Triple> reader = pipe.reader();
+        final Future<?> task = executor.submit(() -> pipe.run(input, base, lang));
+        return stream(spliteratorUnknownSize(reader, ORDERED | NONNULL), false).onClose(() -> {
+            pipe.close();
+            task.cancel(true);
+        });
+    }
+
+    private static ExecutorService newExecutor() {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60L, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "trellis-streaming-parser");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * A bounded hand-off between the parser thread, which acts as a StreamRDF sink, and the consumer thread,
+     * which reads the triples with a {@link Reader}. The pipe only holds a weak reference to its reader, so
+     * that the parser thread can tell when the consumer has gone away.
+     */
+    private static final class Pipe extends StreamRDFBase {
+
+        private static final List<Triple> END = new ArrayList<>(0);
+
+        private final BlockingQueue<List<Triple>> queue;
+        private final BiConsumer<String, String> prefixes;
+
+        private List<Triple> batch = new ArrayList<>(BATCH_SIZE);
+        private WeakReference<Reader> consumer = new WeakReference<>(null);
+        private volatile boolean closed;
+        private volatile RuntimeException error;
+
+        Pipe(final int capacity, final BiConsumer<String, String> prefixes) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.prefixes = prefixes;
+        }
+
+        void run(final InputStream input, final String base, final Lang lang) {
+            try {
+                RDFParser.source(input).lang(lang).base(base).parse(this);
+                flush();
+            } catch (final RuntimeException ex) {
+                LOGGER.debug("Error parsing stream: {}", ex.getMessage());
+                error = ex;
+            } finally {
+                put(END);
+            }
+        }
+
+        Reader reader() {
+            final Reader reader = new Reader(this);
+            consumer = new WeakReference<>(reader);
+            return reader;
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        @Override
+        public void triple(final Triple triple) {
+            batch.add(triple);
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void quad(final Quad quad) {
+            if (quad.isTriple() || quad.isDefaultGraph()) {
+                triple(quad.asTriple());
+            }
+        }
+
+        @Override
+        public void prefix(final String prefix, final String iri) {
+            prefixes.accept(prefix, iri);
+        }
+
+        @Override
+        public void finish() {
+            flush();
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                put(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        private void put(final List<Triple> triples) {
+            try {
+                // Stop waiting if the consumer has closed the stream or dropped it altogether
+                while (!closed && nonNull(consumer.get())) {
+                    if (queue.offer(triples, 100L, MILLISECONDS)) {
+                        return;
+                    }
+                }
+                if (triples != END) {
+                    throw new CancellationException("Triple stream closed by consumer");
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while parsing");
+            }
+        }
+    }
+
+    /**
+     * The consumer side of a pipe
+     */
+    private static final class Reader implements Iterator<Triple> {
+
+        private final Pipe pipe;
+        private Iterator<Triple> current = emptyIterator();
+        private boolean done;
+
+        Reader(final Pipe pipe) {
+            this.pipe = pipe;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (done) {
+                    return false;
+                }
+                final List<Triple> next = take();
+                if (next == Pipe.END) {
+                    // The parser has finished, so release the pipe as if the stream had been closed
+                    done = true;
+                    pipe.close();
+                    if (nonNull(pipe.error)) {
+                        throw new RuntimeRepositoryException(pipe.error);
+                    }
+                    return false;
+                }
+                current = next.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Triple next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private List<Triple> take() {
+            try {
+                return pipe.queue.take();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeRepositoryException(ex);
+            }
+        }
+    }
+
+    private StreamingParser() {
+        // prevent instantiation
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+/**
+ * A registry of compiled Mustache templates.
+ *
+ * <p>Templates are identified by either a filesystem path or a classpath resource name, and are
+ * compiled once and held in a bounded cache. Filesystem templates may also be watched for changes,
+ * in which case they are recompiled on a background thread rather than in the request path.
+ *
+ * @author acoburn
+ */
+public class TemplateRegistry {
+
+    private static final Logger LOGGER = getLogger(TemplateRegistry.class);
+
+    private final LruCache<String, Mustache> cache;
+    private final Map<Path, String> watchedFiles = new ConcurrentHashMap<>();
+    private final Set<Path> watchedDirectories = new HashSet<>();
+
+    private WatchService watcher;
+
+    /**
+     * Create a template registry
+     * @param maxSize the maximum number of compiled templates to retain
+     */
+    public TemplateRegistry(final int maxSize) {
+        this.cache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Get a compiled template
+     * @param template the template path or classpath resource name
+     * @return the compiled template
+     */
+    public Mustache get(final String template) {
+        return cache.get(template, TemplateRegistry::compile);
+    }
+
+    /**
+     * Discard a compiled template, so that it is compiled again when it is next requested
+     * @param template the template path or classpath resource name
+     */
+    public void invalidate(final String template) {
+        cache.invalidate(template);
+    }
+
+    /**
+     * Recompile a template whenever its file changes. This has no effect for classpath templates.
+     * @param template the template path
+     */
+    public synchronized void watch(final String template) {
+        final File file = new File(template);
+        if (!file.exists()) {
+            return;
+        }
+        final Path path = file.toPath().toAbsolutePath();
+        try {
+            if (isNull(watcher)) {
+                watcher = FileSystems.getDefault().newWatchService();
+                final Thread thread = new Thread(this::poll, "trellis-template-watcher");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            if (watchedDirectories.add(path.getParent())) {
+                path.getParent().register(watcher, ENTRY_MODIFY, ENTRY_CREATE);
+            }
+            watchedFiles.put(path, template);
+        } catch (final IOException ex) {
+            LOGGER.warn("Unable to watch template {}: {}", template, ex.getMessage());
+        }
+    }
+
+    /**
+     * Stop watching for template changes
+     */
+    public synchronized void close() {
+        if (nonNull(watcher)) {
+            try {
+                watcher.close();
+            } catch (final IOException ex) {
+                LOGGER.warn("Error closing template watcher: {}", ex.getMessage());
+            }
+            watcher = null;
+            watchedDirectories.clear();
+            watchedFiles.clear();
+        }
+    }
+
+    private void poll() {
+        final WatchService service = watcher;
+        try {
+            while (true) {
+                final WatchKey key = service.take();
+                final Path directory = (Path) key.watchable();
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (!OVERFLOW.equals(event.kind())) {
+                        final String template = watchedFiles.get(directory.resolve((Path) event.context()));
+                        if (nonNull(template)) {
+                            reload(template);
+                        }
+                    }
+                }
+                key.reset();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException ex) {
+            LOGGER.debug("Template watcher closed");
+        }
+    }
+
+    private void reload(final String template) {
+        try {
+            cache.put(template, compile(template));
+            LOGGER.info("Reloaded template {}", template);
+        } catch (final RuntimeException ex) {
+            LOGGER.warn("Unable to reload template {}: {}", template, ex.getMessage());
+        }
+    }
+
+    private static Mustache compile(final String template) {
+        // A new factory is used for each compilation, since a factory caches templates by name
+        final DefaultMustacheFactory mf = new DefaultMustacheFactory();
+        if (new File(template).exists()) {
+            return mf.compile(template);
+        }
+        return mf.compile(getReader(template), template);
+    }
+
+    private static Reader getReader(final String template) {
+        if (template.startsWith("/")) {
+            return new InputStreamReader(TemplateRegistry.class.getResourceAsStream(template), UTF_8);
+        }
+        return new InputStreamReader(TemplateRegistry.class.getResourceAsStream("/" + template), UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.jena.JenaRDF;
+import org.apache.commons.rdf.jena.JenaRDFTerm;
+import org.apache.commons.rdf.jena.JenaTriple;
+import org.apache.jena.graph.Node;
+
+/**
+ * Converts commons-rdf triples into Jena triples.
+ *
+ * <p>Triples and terms that already wrap Jena objects are unwrapped without allocation. Other
+ * IRIs and blank nodes are converted once and reused for the lifetime of the converter, up to a
+ * fixed number of distinct terms, so that a repeated subject or predicate maps to a single
+ * {@link Node}. A converter is intended to be used for a single request; it is safe for concurrent
+ * use, since the request's triples may come from a parallel stream.
+ *
+ * @author acoburn
+ */
+public class TripleConverter implements Function<Triple, org.apache.jena.graph.Triple> {
+
+    private static final JenaRDF rdf = new JenaRDF();
+
+    private final Map<RDFTerm, Node> nodes = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /**
+     * Create a triple converter
+     * @param maxSize the maximum number of converted terms to retain
+     */
+    public TripleConverter(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public org.apache.jena.graph.Triple apply(final Triple triple) {
+        if (triple instanceof JenaTriple) {
+            return ((JenaTriple) triple).asJenaTriple();
+        }
+        return org.apache.jena.graph.Triple.create(asJenaNode(triple.getSubject()),
+                asJenaNode(triple.getPredicate()), asJenaNode(triple.getObject()));
+    }
+
+    private Node asJenaNode(final RDFTerm term) {
+        if (term instanceof JenaRDFTerm) {
+            return ((JenaRDFTerm) term).asJenaNode();
+        }
+        // Literals are rarely repeated, so only IRIs and blank nodes are retained
+        if (!(term instanceof BlankNodeOrIRI)) {
+            return rdf.asJenaNode(term);
+        }
+        final Node cached = nodes.get(term);
+        if (cached != null) {
+            return cached;
+        }
+        final Node node = rdf.asJenaNode(term);
+        // The size check is approximate under concurrent use, which only affects how much is retained
+        if (nodes.size() < maxSize) {
+            nodes.putIfAbsent(term, node);
+        }
+        return node;
+    }
+}
@@ -14,17 +14,24 @@
 package org.trellisldp.io;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.write;
+import static java.time.Duration.ofSeconds;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Optional.empty;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Stream.of;
 import static org.trellisldp.vocabulary.JSONLD.compacted;
 import static org.trellisldp.vocabulary.JSONLD.expanded;
 import static org.trellisldp.vocabulary.JSONLD.flattened;
 import static org.apache.commons.rdf.api.RDFSyntax.JSONLD;
+import static org.apache.commons.rdf.api.RDFSyntax.NQUADS;
 import static org.apache.commons.rdf.api.RDFSyntax.NTRIPLES;
 import static org.apache.commons.rdf.api.RDFSyntax.RDFA_HTML;
 import static org.apache.commons.rdf.api.RDFSyntax.RDFXML;
+import static org.apache.commons.rdf.api.RDFSyntax.TRIG;
 import static org.apache.commons.rdf.api.RDFSyntax.TURTLE;
 import static org.apache.jena.graph.Factory.createDefaultGraph;
 import static org.apache.jena.graph.NodeFactory.createBlankNode;
@@ -38,13 +45,20 @@ import static org.apache.jena.vocabulary.DCTypes.Text;
 import static org.apache.jena.vocabulary.RDF.Nodes.type;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -54,19 +68,31 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Quad;
+import org.apache.commons.rdf.api.RDFSyntax;
 import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.rdf.api.Triple;
 import org.apache.commons.rdf.jena.JenaRDF;
 import org.apache.jena.graph.Node;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
 import org.apache.jena.vocabulary.DCTerms;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.jupiter.api.BeforeEach;
@@ -78,6 +104,8 @@ import org.trellisldp.api.CacheService;
 import org.trellisldp.api.IOService;
 import org.trellisldp.api.NamespaceService;
 import org.trellisldp.api.RuntimeRepositoryException;
+import org.trellisldp.io.impl.ProfileResolver;
+import org.trellisldp.io.impl.StreamingParser;
 
 /**
  * @author acoburn
@@ -196,6 +224,36 @@ public class IOServiceTest {
         validateGraph(graph);
     }
 
+    @Test
+    public void testJsonLdCustomSerializerLocalResolver() throws UnsupportedEncodingException {
+        final String context = "{\"@context\": {\"dcterms\": \"http://purl.org/dc/terms/\", " +
+            "\"type\": \"@type\", \"Text\": \"http://purl.org/dc/dcmitype/Text\"}}";
+        final IOService myservice = new JenaIOService(mockNamespaceService, new HashMap<>(), emptySet(),
+                singleton("http://example.org/"), mockCache, new ProfileResolver(profile -> context, 1000L,
+                    60000L, 60000L));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        myservice.write(getTriples(), out, JSONLD, rdf.createIRI("http://example.org/context.jsonld"));
+        final String output = out.toString("UTF-8");
+        assertTrue(output.contains("\"dcterms:title\":\"A title\""));
+        assertTrue(output.contains("\"type\":\"Text\""));
+        assertTrue(output.contains("\"@context\":\"http://example.org/context.jsonld\""));
+        assertFalse(output.contains("\"@graph\":"));
+    }
+
+    @Test
+    public void testJsonLdCustomSerializerWithoutCache() throws UnsupportedEncodingException {
+        final String context = "{\"@context\": {\"dcterms\": \"http://purl.org/dc/terms/\", " +
+            "\"type\": \"@type\", \"Text\": \"http://purl.org/dc/dcmitype/Text\"}}";
+        final IOService myservice = new JenaIOService(mockNamespaceService, new HashMap<>(), emptySet(),
+                singleton("http://example.org/"), null, new ProfileResolver(profile -> context, 1000L,
+                    60000L, 60000L));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        myservice.write(getTriples(), out, JSONLD, rdf.createIRI("http://example.org/context.jsonld"));
+        final String output = out.toString("UTF-8");
+        assertTrue(output.contains("\"dcterms:title\":\"A title\""));
+        assertTrue(output.contains("\"@context\":\"http://example.org/context.jsonld\""));
+    }
+
     @Test
     public void testJsonLdCustomUnrecognizedSerializer() throws UnsupportedEncodingException {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -324,6 +382,62 @@ public class IOServiceTest {
         validateGraph(rdf.asGraph(graph));
     }
 
+    @Test
+    public void testPrunePrefixes() {
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("dc", DCTerms.NS);
+        namespaces.put("rdf", RDF.uri);
+        namespaces.put("foaf", "http://xmlns.com/foaf/0.1/");
+        final NamespaceService nsService = mock(NamespaceService.class);
+        when(nsService.getNamespaces()).thenReturn(namespaces);
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("write.prunePrefixes", "true");
+        properties.put("write.prunePrefixes.lookahead", "2");
+        final IOService pruningService = new JenaIOService(nsService, properties);
+
+        final ByteArrayOutputStream turtle = new ByteArrayOutputStream();
+        pruningService.write(getTriples(), turtle, TURTLE);
+        final String ttl = new String(turtle.toByteArray(), UTF_8);
+        assertTrue(ttl.contains("dc:"));
+        // The rdf namespace is only used by the third triple, after the lookahead
+        assertTrue(ttl.contains("rdf:"));
+        assertFalse(ttl.contains("foaf"));
+        final org.apache.jena.graph.Graph graph = createDefaultGraph();
+        RDFDataMgr.read(graph, new ByteArrayInputStream(turtle.toByteArray()), Lang.TURTLE);
+        validateGraph(rdf.asGraph(graph));
+
+        final ByteArrayOutputStream rdfxml = new ByteArrayOutputStream();
+        pruningService.write(getTriples(), rdfxml, RDFXML);
+        final String xml = new String(rdfxml.toByteArray(), UTF_8);
+        assertTrue(xml.contains("xmlns:dc="));
+        assertFalse(xml.contains("xmlns:foaf="));
+
+        final ByteArrayOutputStream jsonld = new ByteArrayOutputStream();
+        pruningService.write(getTriples(), jsonld, JSONLD, compacted);
+        final String json = new String(jsonld.toByteArray(), UTF_8);
+        assertTrue(json.contains("\"dc\""));
+        assertFalse(json.contains("foaf"));
+    }
+
+    @Test
+    public void testBinaryRoundTrip() {
+        final JenaIOService binaryService = (JenaIOService) service3;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        binaryService.writeBinary(getTriples(), out);
+        final Graph graph = rdf.createGraph();
+        try (final Stream<? extends Triple> triples = binaryService.readBinary(
+                    new ByteArrayInputStream(out.toByteArray()))) {
+            triples.forEach(graph::add);
+        }
+        assertEquals(3L, graph.size());
+        validateGraph(graph);
+
+        final ByteArrayOutputStream complex = new ByteArrayOutputStream();
+        binaryService.writeBinary(getComplexTriples(), complex);
+        assertEquals(5L, binaryService.readBinary(new ByteArrayInputStream(complex.toByteArray())).count());
+    }
+
     @Test
     public void testTurtleReaderWithContext() {
         final Graph graph = rdf.createGraph();
@@ -332,6 +446,120 @@ public class IOServiceTest {
         validateGraph(graph);
     }
 
+    @Test
+    public void testStreamingTurtleReader() {
+        final Graph graph = rdf.createGraph();
+        getStreamingService().read(getClass().getResourceAsStream("/testRdf.ttl"), "trellis:repository/resource",
+                TURTLE).forEach(graph::add);
+        validateGraph(graph);
+    }
+
+    @Test
+    public void testStreamingNTriplesReader() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service3.write(getTriples(), out, NTRIPLES);
+        final Graph graph = rdf.createGraph();
+        getStreamingService().read(new ByteArrayInputStream(out.toByteArray()), null, NTRIPLES)
+            .forEach(graph::add);
+        assertEquals(3L, graph.size());
+        validateGraph(graph);
+    }
+
+    @Test
+    public void testStreamingMalformedInput() {
+        final ByteArrayInputStream in = new ByteArrayInputStream("<> <ex:test> a Literal\" . ".getBytes(UTF_8));
+        final Stream<? extends Triple> triples = getStreamingService().read(in, null, TURTLE);
+        assertThrows(RuntimeRepositoryException.class, triples::count);
+    }
+
+    @Test
+    public void testStreamingAbandonedStreams() {
+        final IOService streaming = getStreamingService();
+        for (int i = 0; i < StreamingParser.MAX_THREADS; i++) {
+            abandonStream(streaming);
+        }
+        System.gc();
+        // Once the abandoned streams are collected, their parser threads are free for new input
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service3.write(getTriples(), out, NTRIPLES);
+        assertEquals(3L, (long) assertTimeoutPreemptively(ofSeconds(10), () ->
+                    streaming.read(new ByteArrayInputStream(out.toByteArray()), null, NTRIPLES).count()));
+    }
+
+    @Test
+    public void testParallelNTriplesReader() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service3.write(getTriples(), out, NTRIPLES);
+        final Graph graph = rdf.createGraph();
+        getParallelService(true).read(new ByteArrayInputStream(out.toByteArray()), null, NTRIPLES)
+            .forEach(graph::add);
+        assertEquals(3L, graph.size());
+        validateGraph(graph);
+    }
+
+    @Test
+    public void testParallelBlankNodesAcrossChunks() {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            input.append("_:b0 <http://example.org/value> \"").append(i).append("\" .\n");
+        }
+        final List<Triple> triples = getParallelService(false).read(
+                new ByteArrayInputStream(input.toString().getBytes(UTF_8)), null, NTRIPLES).collect(toList());
+        assertEquals(500L, triples.size());
+        assertEquals(1L, triples.stream().map(Triple::getSubject).distinct().count());
+    }
+
+    @Test
+    public void testParallelCarriageReturns() {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            input.append("<ex:s> <http://example.org/value> \"").append(i).append("\" .\r");
+        }
+        assertEquals(500L, getParallelService(true).read(
+                new ByteArrayInputStream(input.toString().getBytes(UTF_8)), null, NTRIPLES).count());
+    }
+
+    @Test
+    public void testParallelUnorderedClose() {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append("<ex:s> <http://example.org/value> \"").append(i).append("\" .\n");
+        }
+        try (final Stream<? extends Triple> triples = getParallelService(false).read(
+                    new ByteArrayInputStream(input.toString().getBytes(UTF_8)), null, NTRIPLES)) {
+            assertEquals(10L, triples.limit(10).count());
+        }
+    }
+
+    @Test
+    public void testParallelMalformedInput() {
+        final ByteArrayInputStream in = new ByteArrayInputStream("<ex:s> <ex:test> a Literal\" . ".getBytes(UTF_8));
+        final Stream<? extends Triple> triples = getParallelService(true).read(in, null, NTRIPLES);
+        assertThrows(RuntimeRepositoryException.class, triples::count);
+    }
+
+    @Test
+    public void testParallelWrite() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("write.parallel", "true");
+        properties.put("write.parallel.chunkSize", "256");
+        final IOService parallelService = new JenaIOService(mockNamespaceService, properties);
+
+        final Node sub = createURI("trellis:repository/resource");
+        final List<Triple> triples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            triples.add(rdf.asTriple(create(sub, title.asNode(), createLiteral("Title \"" + i + "\""))));
+        }
+        triples.add(rdf.asTriple(create(sub, subject.asNode(), createBlankNode())));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parallelService.write(triples.stream(), out, NTRIPLES);
+        final org.apache.jena.graph.Graph graph = createDefaultGraph();
+        RDFDataMgr.read(graph, new ByteArrayInputStream(out.toByteArray()), Lang.NTRIPLES);
+        assertEquals(1001, graph.size());
+        assertTrue(graph.contains(sub, title.asNode(), createLiteral("Title \"500\"")));
+    }
+
     @Test
     public void testHtmlSerializer() {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -346,6 +574,31 @@ public class IOServiceTest {
         assertTrue(html.contains("<h1>A title</h1>"));
     }
 
+    @Test
+    public void testStreamingHtmlSerializer() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("html.streaming", "true");
+        properties.put("html.flushInterval", "2");
+        final IOService htmlService = new JenaIOService(mockNamespaceService, properties);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        htmlService.write(getComplexTriples(), out, RDFA_HTML, rdf.createIRI("trellis:repository/resource"));
+        final String html = new String(out.toByteArray(), UTF_8);
+        assertTrue(html.contains("<title>trellis:repository/resource</title>"));
+        assertTrue(html.contains("_:B"));
+        assertTrue(html.contains("<a href=\"http://sws.geonames.org/4929022/\">http://sws.geonames.org/4929022/</a>"));
+        assertTrue(html.contains("<a href=\"http://purl.org/dc/terms/title\">dc:title</a>"));
+        assertTrue(html.contains("<a href=\"http://purl.org/dc/dcmitype/Text\">dcmitype:Text</a>"));
+        assertTrue(html.indexOf("A title") < html.indexOf("Other title"));
+    }
+
+    @Test
+    public void testHtmlNamespaceLookups() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(getComplexTriples(), out, RDFA_HTML);
+        verify(mockNamespaceService, times(1)).getPrefix(eq("http://purl.org/dc/terms/"));
+    }
+
     @Test
     public void testHtmlSerializer2() {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -406,6 +659,243 @@ public class IOServiceTest {
         assertTrue(html.contains("<h1>A title</h1>"));
     }
 
+    @Test
+    public void testHtmlProfileTemplate() throws Exception {
+        final Path template = createTempFile("theme", ".mustache");
+        write(template, "<h1>Themed: {{title}}</h1>".getBytes(UTF_8));
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("template.profile.http://example.org/theme", template.toString());
+        final JenaIOService themed = new JenaIOService(mockNamespaceService, properties);
+
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            themed.write(getComplexTriples(), out, RDFA_HTML, rdf.createIRI("http://example.org/"),
+                    rdf.createIRI("http://example.org/theme"));
+            assertEquals("<h1>Themed: A title</h1>", new String(out.toByteArray(), UTF_8));
+
+            final ByteArrayOutputStream other = new ByteArrayOutputStream();
+            themed.write(getComplexTriples(), other, RDFA_HTML, rdf.createIRI("http://example.org/"));
+            assertTrue(new String(other.toByteArray(), UTF_8).contains("<h1>A title</h1>"));
+        } finally {
+            themed.close();
+        }
+    }
+
+    @Test
+    public void testMetrics() {
+        final List<String> events = new ArrayList<>();
+        final IOMetrics metrics = new IOMetrics() {
+            @Override
+            public void recordRead(final RDFSyntax syntax, final String path, final long nanos, final long triples) {
+                events.add("read " + name(syntax) + " " + path + " " + triples);
+            }
+
+            @Override
+            public void recordWrite(final RDFSyntax syntax, final String path, final long nanos, final long triples,
+                    final long bytes) {
+                events.add("write " + name(syntax) + " " + path + " " + triples + " " + (bytes > 0));
+            }
+
+            private String name(final RDFSyntax syntax) {
+                return syntax == null ? "THRIFT" : syntax.name();
+            }
+
+            @Override
+            public void recordUpdate(final String path, final long nanos) {
+                events.add("update " + path);
+            }
+        };
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("read.streaming", "true");
+        final IOService instrumented = new JenaIOService(mockNamespaceService, properties, emptySet(), emptySet(),
+                null, metrics);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        instrumented.write(getTriples(), out, NTRIPLES);
+        final ByteArrayOutputStream jsonld = new ByteArrayOutputStream();
+        instrumented.write(getTriples(), jsonld, JSONLD);
+        try (final Stream<? extends Triple> triples = instrumented.read(new ByteArrayInputStream(out.toByteArray()),
+                    null, NTRIPLES)) {
+            assertEquals(3L, triples.count());
+        }
+        assertEquals(3L, instrumented.read(new ByteArrayInputStream(jsonld.toByteArray()), null, JSONLD).count());
+        instrumented.update(rdf.createGraph(), "INSERT DATA { <ex:s> <ex:p> <ex:o> }", null);
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ((JenaIOService) instrumented).writeBinary(getTriples(), binary);
+        try (final Stream<? extends Triple> triples = ((JenaIOService) instrumented).readBinary(
+                    new ByteArrayInputStream(binary.toByteArray()))) {
+            assertEquals(3L, triples.count());
+        }
+        // A stream that is consumed but never closed is still recorded
+        final Graph graph = rdf.createGraph();
+        instrumented.read(new ByteArrayInputStream(out.toByteArray()), null, NTRIPLES).forEach(graph::add);
+
+        assertEquals(asList("write NTRIPLES streaming 3 true", "write JSONLD streaming 3 true",
+                    "read NTRIPLES streaming 3", "read JSONLD buffered 3", "update direct",
+                    "write THRIFT streaming 3 true", "read THRIFT streaming 3", "read NTRIPLES streaming 3"), events);
+    }
+
+    @Test
+    public void testWriteQuads() {
+        final IRI graph1 = rdf.createIRI("trellis:repository/resource#audit");
+        final IRI graph2 = rdf.createIRI("trellis:repository/resource#acl");
+        final JenaIOService quadService = (JenaIOService) service3;
+
+        final ByteArrayOutputStream nquads = new ByteArrayOutputStream();
+        quadService.writeQuads(asList(getQuads(graph1), getQuads(graph2)), nquads, NQUADS);
+        final DatasetGraph dataset = DatasetGraphFactory.create();
+        RDFDataMgr.read(dataset, new ByteArrayInputStream(nquads.toByteArray()), Lang.NQUADS);
+        assertEquals(3L, dataset.getGraph(rdf.asJenaNode(graph1)).size());
+        assertEquals(3L, dataset.getGraph(rdf.asJenaNode(graph2)).size());
+
+        final ByteArrayOutputStream trig = new ByteArrayOutputStream();
+        quadService.writeQuads(Stream.concat(getQuads(graph1), getQuads(graph2)), trig, TRIG);
+        final DatasetGraph trigDataset = DatasetGraphFactory.create();
+        RDFDataMgr.read(trigDataset, new ByteArrayInputStream(trig.toByteArray()), Lang.TRIG);
+        assertEquals(3L, trigDataset.getGraph(rdf.asJenaNode(graph1)).size());
+        assertEquals(3L, trigDataset.getGraph(rdf.asJenaNode(graph2)).size());
+
+        final ByteArrayOutputStream jsonld = new ByteArrayOutputStream();
+        quadService.writeQuads(asList(getQuads(graph1), getQuads(graph2)), jsonld, JSONLD);
+        final DatasetGraph jsonldDataset = DatasetGraphFactory.create();
+        RDFDataMgr.read(jsonldDataset, new ByteArrayInputStream(jsonld.toByteArray()), Lang.JSONLD);
+        assertEquals(3L, jsonldDataset.getGraph(rdf.asJenaNode(graph1)).size());
+        assertEquals(3L, jsonldDataset.getGraph(rdf.asJenaNode(graph2)).size());
+
+        assertThrows(RuntimeRepositoryException.class, () ->
+                quadService.writeQuads(getQuads(graph1), new ByteArrayOutputStream(), NTRIPLES));
+    }
+
+    @Test
+    public void testUpdateDelta() {
+        final Graph graph = rdf.createGraph();
+        getTriples().forEach(graph::add);
+        final Graph additions = rdf.createGraph();
+        final Graph deletions = rdf.createGraph();
+        ((JenaIOService) service).update(graph, "DELETE WHERE { ?s <http://purl.org/dc/terms/title> ?o };" +
+                "INSERT { <> <http://purl.org/dc/terms/title> \"Other title\" } WHERE {};" +
+                "INSERT { <> <http://purl.org/dc/terms/description> \"Temporary\" } WHERE {};" +
+                "DELETE WHERE { ?s <http://purl.org/dc/terms/description> ?o }",
+                "trellis:repository/resource", additions, deletions);
+        assertEquals(3L, graph.size());
+        assertEquals(1L, additions.size());
+        assertEquals(1L, deletions.size());
+        assertTrue(additions.contains(rdf.createIRI("trellis:repository/resource"),
+                    rdf.createIRI("http://purl.org/dc/terms/title"), rdf.createLiteral("Other title")));
+        assertTrue(deletions.contains(rdf.createIRI("trellis:repository/resource"),
+                    rdf.createIRI("http://purl.org/dc/terms/title"), rdf.createLiteral("A title")));
+    }
+
+    @Test
+    public void testIndexedUpdate() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("update.indexThreshold", "1");
+        final JenaIOService indexedService = new JenaIOService(mockNamespaceService, properties);
+
+        final Graph graph = new ForwardingGraph(rdf.createGraph());
+        getTriples().forEach(graph::add);
+        final Graph additions = rdf.createGraph();
+        final Graph deletions = rdf.createGraph();
+        indexedService.update(graph, "DELETE WHERE { ?s <http://purl.org/dc/terms/title> ?o };" +
+                "INSERT { <> <http://purl.org/dc/terms/title> \"Other title\" } WHERE {}",
+                "trellis:repository/resource", additions, deletions);
+        assertEquals(3L, graph.size());
+        assertTrue(graph.contains(rdf.createIRI("trellis:repository/resource"),
+                    rdf.createIRI("http://purl.org/dc/terms/title"), rdf.createLiteral("Other title")));
+        assertEquals(1L, additions.size());
+        assertEquals(1L, deletions.size());
+
+        indexedService.update(graph, "DELETE WHERE { ?s ?p ?o }", null);
+        assertEquals(0L, graph.size());
+    }
+
+    @Test
+    public void testIndexedUpdateThreshold() {
+        final List<String> paths = new ArrayList<>();
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("update.indexThreshold", "3");
+        final JenaIOService indexedService = new JenaIOService(mockNamespaceService, properties, emptySet(),
+                emptySet(), null, new IOMetrics() {
+                    @Override
+                    public void recordUpdate(final String path, final long nanos) {
+                        paths.add(path);
+                    }
+                });
+
+        final Graph graph = spy(new ForwardingGraph(rdf.createGraph()));
+        getTriples().forEach(graph::add);
+        indexedService.update(graph, "INSERT DATA { <ex:s> <ex:p> \"1\" }", null);
+        indexedService.update(graph, "INSERT DATA { <ex:s> <ex:p> \"2\" }", null);
+        assertEquals(asList(IOMetrics.DIRECT, IOMetrics.INDEXED), paths);
+        verify(graph, never()).size();
+    }
+
+    @Test
+    public void testIndexedUpdateWithBlankNodes() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("update.indexThreshold", "1");
+        final JenaIOService indexedService = new JenaIOService(mockNamespaceService, properties);
+
+        final IRI resource = rdf.createIRI("trellis:repository/resource");
+        final IRI dcTitle = rdf.createIRI("http://purl.org/dc/terms/title");
+        final IRI dcSubject = rdf.createIRI("http://purl.org/dc/terms/subject");
+        final IRI dcDescription = rdf.createIRI("http://purl.org/dc/terms/description");
+        final BlankNode bnode = new SimpleBlankNode("b1");
+        final Graph graph = new SetGraph();
+        graph.add(resource, dcTitle, rdf.createLiteral("A title"));
+        graph.add(resource, dcSubject, bnode);
+        graph.add(bnode, dcTitle, rdf.createLiteral("A subject"));
+
+        indexedService.update(graph, "DELETE WHERE { ?b <http://purl.org/dc/terms/title> \"A subject\" };" +
+                "INSERT { ?b <http://purl.org/dc/terms/description> \"A description\" } " +
+                "WHERE { <> <http://purl.org/dc/terms/subject> ?b };" +
+                "INSERT { <> <http://purl.org/dc/terms/subject> [ <http://purl.org/dc/terms/title> \"New\" ] } " +
+                "WHERE {}", "trellis:repository/resource");
+
+        assertEquals(5L, graph.size());
+        assertFalse(graph.contains(bnode, dcTitle, rdf.createLiteral("A subject")));
+        assertTrue(graph.contains(bnode, dcDescription, rdf.createLiteral("A description")));
+        assertTrue(graph.contains(resource, dcSubject, bnode));
+        final BlankNodeOrIRI added = graph.stream(null, dcTitle, rdf.createLiteral("New")).findFirst().get()
+            .getSubject();
+        assertNotEquals(bnode, added);
+        assertTrue(graph.contains(resource, dcSubject, added));
+    }
+
+    @Test
+    public void testRepeatedUpdate() {
+        final String update = "INSERT { <> <http://purl.org/dc/terms/title> \"Other title\" } WHERE {}";
+        final Graph graph1 = rdf.createGraph();
+        final Graph graph2 = rdf.createGraph();
+        service.update(graph1, update, "trellis:repository/resource");
+        service.update(graph2, update, "trellis:repository/resource");
+        service.update(graph2, update, "trellis:repository/other");
+        assertEquals(1L, graph1.size());
+        assertEquals(2L, graph2.size());
+        assertTrue(graph2.contains(rdf.createIRI("trellis:repository/other"),
+                    rdf.createIRI("http://purl.org/dc/terms/title"), rdf.createLiteral("Other title")));
+        assertThrows(RuntimeRepositoryException.class, () -> service.update(graph1, "blah blah", null));
+        assertThrows(RuntimeRepositoryException.class, () -> service.update(graph1, "blah blah", null));
+    }
+
+    @Test
+    public void testRepeatedBlankNodeUpdate() {
+        final String update = "INSERT DATA { <> <http://purl.org/dc/terms/subject> " +
+            "[ <http://purl.org/dc/terms/title> \"A subject\" ] }";
+        final Graph graph1 = rdf.createGraph();
+        final Graph graph2 = rdf.createGraph();
+        service.update(graph1, update, "trellis:repository/resource");
+        service.update(graph2, update, "trellis:repository/resource");
+        assertEquals(2L, graph1.size());
+        assertEquals(2L, graph2.size());
+        final Node bnode1 = rdf.asJenaNode(graph1.stream(null, rdf.createIRI("http://purl.org/dc/terms/title"), null)
+                .findFirst().get().getSubject());
+        final Node bnode2 = rdf.asJenaNode(graph2.stream(null, rdf.createIRI("http://purl.org/dc/terms/title"), null)
+                .findFirst().get().getSubject());
+        assertTrue(bnode1.isBlank());
+        assertNotEquals(bnode1, bnode2);
+    }
+
     @Test
     public void testUpdateError() {
         final Graph graph = rdf.createGraph();
@@ -445,6 +935,34 @@ public class IOServiceTest {
                 .map(RDFTerm::ntriplesString).get());
     }
 
+    private static void abandonStream(final IOService service) {
+        final byte[] line = "<http://example.org/s> <http://example.org/p> \"o\" .\n".getBytes(UTF_8);
+        final InputStream endless = new InputStream() {
+            private long position;
+
+            @Override
+            public int read() {
+                return line[(int) (position++ % line.length)];
+            }
+        };
+        assertTrue(service.read(endless, null, NTRIPLES).iterator().hasNext());
+    }
+
+    private IOService getStreamingService() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("read.streaming", "true");
+        properties.put("read.bufferSize", "2");
+        return new JenaIOService(mockNamespaceService, properties);
+    }
+
+    private IOService getParallelService(final boolean ordered) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("read.parallel", "true");
+        properties.put("read.parallel.chunkSize", "1024");
+        properties.put("read.parallel.ordered", Boolean.toString(ordered));
+        return new JenaIOService(mockNamespaceService, properties);
+    }
+
     private static Stream<Triple> getTriples() {
         final Node sub = createURI("trellis:repository/resource");
         return of(
@@ -454,6 +972,11 @@ public class IOServiceTest {
             .map(rdf::asTriple);
     }
 
+    private static Stream<Quad> getQuads(final IRI graphName) {
+        return getTriples().map(triple -> rdf.createQuad(graphName, triple.getSubject(), triple.getPredicate(),
+                    triple.getObject()));
+    }
+
     private static Stream<Triple> getComplexTriples() {
         final Node sub = createURI("trellis:repository/resource");
         final Node bn = createBlankNode();
@@ -472,4 +995,162 @@ public class IOServiceTest {
             assertTrue(graph.contains(triple));
         });
     }
+
+    /**
+     * A graph that is not backed by Jena.
+     */
+    private static class ForwardingGraph implements Graph {
+        private final Graph graph;
+
+        ForwardingGraph(final Graph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        public void add(final Triple triple) {
+            graph.add(triple);
+        }
+
+        @Override
+        public void add(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            graph.add(subject, predicate, object);
+        }
+
+        @Override
+        public boolean contains(final Triple triple) {
+            return graph.contains(triple);
+        }
+
+        @Override
+        public boolean contains(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            return graph.contains(subject, predicate, object);
+        }
+
+        @Override
+        public void remove(final Triple triple) {
+            graph.remove(triple);
+        }
+
+        @Override
+        public void remove(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            graph.remove(subject, predicate, object);
+        }
+
+        @Override
+        public void clear() {
+            graph.clear();
+        }
+
+        @Override
+        public long size() {
+            return graph.size();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream() {
+            return graph.stream();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream(final BlankNodeOrIRI subject, final IRI predicate,
+                final RDFTerm object) {
+            return graph.stream(subject, predicate, object);
+        }
+    }
+
+    /**
+     * A blank node that is not backed by Jena
+     */
+    private static class SimpleBlankNode implements BlankNode {
+        private final String reference;
+
+        SimpleBlankNode(final String reference) {
+            this.reference = reference;
+        }
+
+        @Override
+        public String uniqueReference() {
+            return reference;
+        }
+
+        @Override
+        public String ntriplesString() {
+            return "_:" + reference;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof BlankNode && reference.equals(((BlankNode) other).uniqueReference());
+        }
+
+        @Override
+        public int hashCode() {
+            return reference.hashCode();
+        }
+    }
+
+    /**
+     * A graph that holds its triples, and their original terms, in a set
+     */
+    private static class SetGraph implements Graph {
+        private final Set<Triple> triples = new LinkedHashSet<>();
+
+        @Override
+        public void add(final Triple triple) {
+            triples.add(triple);
+        }
+
+        @Override
+        public void add(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            triples.add(rdf.createTriple(subject, predicate, object));
+        }
+
+        @Override
+        public boolean contains(final Triple triple) {
+            return triples.contains(triple);
+        }
+
+        @Override
+        public boolean contains(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            return stream(subject, predicate, object).findAny().isPresent();
+        }
+
+        @Override
+        public void remove(final Triple triple) {
+            triples.remove(triple);
+        }
+
+        @Override
+        public void remove(final BlankNodeOrIRI subject, final IRI predicate, final RDFTerm object) {
+            triples.removeIf(triple -> matches(triple, subject, predicate, object));
+        }
+
+        @Override
+        public void clear() {
+            triples.clear();
+        }
+
+        @Override
+        public long size() {
+            return triples.size();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream() {
+            return triples.stream();
+        }
+
+        @Override
+        public Stream<? extends Triple> stream(final BlankNodeOrIRI subject, final IRI predicate,
+                final RDFTerm object) {
+            return triples.stream().filter(triple -> matches(triple, subject, predicate, object));
+        }
+
+        private static boolean matches(final Triple triple, final BlankNodeOrIRI subject, final IRI predicate,
+                final RDFTerm object) {
+            return (subject == null || subject.equals(triple.getSubject()))
+                && (predicate == null || predicate.equals(triple.getPredicate()))
+                && (object == null || object.equals(triple.getObject()));
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static org.apache.jena.graph.Node.ANY;
+import static org.apache.jena.graph.NodeFactory.createBlankNode;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class CompactGraphTest {
+
+    private static final Node subject = createURI("http://example.org/resource");
+    private static final Node title = createURI("http://purl.org/dc/terms/title");
+    private static final Node relation = createURI("http://purl.org/dc/terms/relation");
+
+    @Test
+    public void testAddAndFind() {
+        final Graph graph = new CompactGraph();
+        final Node bnode = createBlankNode();
+        graph.add(Triple.create(subject, title, createLiteral("A title")));
+        graph.add(Triple.create(subject, relation, bnode));
+        graph.add(Triple.create(bnode, title, createLiteral("Other title")));
+        graph.add(Triple.create(subject, title, createLiteral("A title")));
+
+        assertEquals(3, graph.size());
+        assertEquals(2, graph.find(subject, ANY, ANY).toList().size());
+        assertEquals(2, graph.find(ANY, title, ANY).toList().size());
+        assertEquals(1, graph.find(ANY, ANY, bnode).toList().size());
+        assertEquals(1, graph.find(bnode, title, ANY).toList().size());
+        assertEquals(3, graph.find(ANY, ANY, ANY).toList().size());
+        assertEquals(0, graph.find(createURI("http://example.org/other"), ANY, ANY).toList().size());
+        assertTrue(graph.contains(subject, relation, bnode));
+        assertTrue(graph.contains(subject, ANY, bnode));
+        assertFalse(graph.contains(bnode, relation, subject));
+    }
+
+    @Test
+    public void testDelete() {
+        final Graph graph = new CompactGraph();
+        final Triple triple1 = Triple.create(subject, title, createLiteral("A title"));
+        final Triple triple2 = Triple.create(subject, title, createLiteral("Other title"));
+        graph.add(triple1);
+        graph.add(triple2);
+        graph.delete(triple1);
+        graph.delete(triple1);
+
+        assertEquals(1, graph.size());
+        assertFalse(graph.contains(triple1));
+        assertTrue(graph.contains(triple2));
+        assertEquals(1, graph.find(subject, ANY, ANY).toList().size());
+
+        graph.add(triple1);
+        assertEquals(2, graph.size());
+        assertTrue(graph.contains(triple1));
+
+        graph.clear();
+        assertEquals(0, graph.size());
+        assertFalse(graph.find(ANY, ANY, ANY).hasNext());
+    }
+
+    @Test
+    public void testGrowth() {
+        final Graph graph = new CompactGraph();
+        for (int i = 0; i < 10000; i++) {
+            graph.add(Triple.create(createURI("http://example.org/resource/" + (i % 100)), title,
+                        createLiteral("Title " + i)));
+        }
+        for (int i = 0; i < 5000; i++) {
+            graph.delete(Triple.create(createURI("http://example.org/resource/" + (i % 100)), title,
+                        createLiteral("Title " + i)));
+        }
+        assertEquals(5000, graph.size());
+        assertEquals(50, graph.find(createURI("http://example.org/resource/7"), ANY, ANY).toList().size());
+        assertEquals(5000, graph.find(ANY, title, ANY).toList().size());
+        assertTrue(graph.contains(createURI("http://example.org/resource/99"), title, createLiteral("Title 9999")));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static org.apache.jena.graph.Factory.createDefaultGraph;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class DeltaGraphTest {
+
+    private static final Node subject = createURI("http://example.org/resource");
+    private static final Node title = createURI("http://purl.org/dc/terms/title");
+    private static final Triple triple1 = Triple.create(subject, title, createLiteral("A title"));
+    private static final Triple triple2 = Triple.create(subject, title, createLiteral("Other title"));
+
+    @Test
+    public void testDelta() {
+        final Graph graph = createDefaultGraph();
+        graph.add(triple1);
+        final DeltaGraph delta = new DeltaGraph(graph);
+
+        delta.add(triple1);
+        delta.add(triple2);
+        delta.delete(triple1);
+        assertEquals(1, graph.size());
+        assertTrue(graph.contains(triple2));
+        assertEquals(1, delta.getAdditions().size());
+        assertTrue(delta.getAdditions().contains(triple2));
+        assertEquals(1, delta.getDeletions().size());
+        assertTrue(delta.getDeletions().contains(triple1));
+    }
+
+    @Test
+    public void testNetChanges() {
+        final Graph graph = createDefaultGraph();
+        graph.add(triple1);
+        final DeltaGraph delta = new DeltaGraph(graph);
+
+        delta.delete(triple1);
+        delta.add(triple1);
+        delta.add(triple2);
+        delta.delete(triple2);
+        delta.delete(triple2);
+        assertEquals(1, delta.size());
+        assertTrue(delta.contains(triple1));
+        assertTrue(delta.getAdditions().isEmpty());
+        assertTrue(delta.getDeletions().isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.jena.JenaRDF;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import org.trellisldp.vocabulary.DC;
+import org.trellisldp.vocabulary.RDFS;
+import org.trellisldp.vocabulary.SKOS;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class HtmlDataTest {
+
+    private static final RDF rdf = new JenaRDF();
+
+    private static final IRI subject = rdf.createIRI("test:value");
+
+    @Test
+    public void testTitlePriority() {
+        final List<Triple> triples = asList(
+                rdf.createTriple(subject, DC.title, rdf.createLiteral("A title")),
+                rdf.createTriple(subject, RDFS.label, rdf.createLiteral("A label")),
+                rdf.createTriple(subject, RDFS.label, rdf.createLiteral("Another label")));
+        assertEquals("A label", new HtmlData(null, subject, triples, emptyMap()).getTitle());
+
+        final List<Triple> triples2 = asList(
+                rdf.createTriple(subject, RDFS.label, rdf.createLiteral("A label")),
+                rdf.createTriple(subject, SKOS.prefLabel, rdf.createLiteral("A preferred label")));
+        assertEquals("A preferred label", new HtmlData(null, subject, triples2, emptyMap()).getTitle());
+    }
+
+    @Test
+    public void testTitleFallback() {
+        final List<Triple> triples = asList(rdf.createTriple(subject, DC.title, rdf.createIRI("test:title")));
+        assertEquals("test:value", new HtmlData(null, subject, triples, emptyMap()).getTitle());
+        assertEquals("", new HtmlData(null, null, triples, emptyMap()).getTitle());
+    }
+
+    @Test
+    public void testSortedRows() {
+        final List<Triple> triples = asList(
+                rdf.createTriple(subject, DC.title, rdf.createLiteral("B")),
+                rdf.createTriple(subject, DC.title, rdf.createLiteral("A")));
+        final HtmlData data = new HtmlData(null, subject, triples, emptyMap());
+        final Iterator<LabelledTriple> rows = data.getTriples().iterator();
+        assertEquals("A", rows.next().getObject());
+        assertEquals("B", rows.next().getObject());
+        assertSame(data.getTriples(), data.getTriples());
+    }
+
+    @Test
+    public void testStreamedRowsSingleUse() {
+        final List<Triple> triples = asList(
+                rdf.createTriple(subject, DC.title, rdf.createLiteral("B")),
+                rdf.createTriple(subject, DC.title, rdf.createLiteral("A")));
+        final HtmlData data = new HtmlData(null, subject, triples.iterator(), emptyMap());
+        assertSame(data.getTriples(), data.getTriples());
+        final Iterator<LabelledTriple> rows = data.getTriples().iterator();
+        // Streamed rows keep their order
+        assertEquals("B", rows.next().getObject());
+        assertEquals("A", rows.next().getObject());
+        assertFalse(rows.hasNext());
+        assertFalse(data.getTriples().iterator().hasNext());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDboolean;
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDdouble;
+import static org.apache.jena.datatypes.xsd.XSDDatatype.XSDinteger;
+import static org.apache.jena.graph.Factory.createDefaultGraph;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.apache.jena.graph.Triple.create;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jsonldjava.core.Context;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.vocabulary.DCTerms;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class JsonLdCompactorTest {
+
+    private static final String PROFILE = "http://example.org/context.jsonld";
+    private static final String CONTEXT = "{\"@context\": {\"dcterms\": \"http://purl.org/dc/terms/\", " +
+        "\"title\": \"dcterms:title\"}}";
+
+    @Test
+    public void testCompact() throws Exception {
+        final JsonLdCompactor compactor = new JsonLdCompactor(10);
+        final Context context = compactor.getContext(PROFILE, CONTEXT).get();
+
+        final Graph graph = createDefaultGraph();
+        graph.add(create(createURI("http://example.org/resource"), DCTerms.title.asNode(),
+                    createLiteral("A title")));
+        graph.add(create(createURI("http://example.org/resource"), DCTerms.spatial.asNode(),
+                    createURI("http://sws.geonames.org/4929022/")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compactor.write(out, graph, PROFILE, context);
+        final String output = new String(out.toByteArray(), UTF_8);
+        assertTrue(output.contains("\"@context\":\"" + PROFILE + "\""));
+        assertTrue(output.contains("\"title\":\"A title\""));
+        assertTrue(output.contains("\"dcterms:spatial\":{\"@id\":\"http://sws.geonames.org/4929022/\"}"));
+        assertFalse(output.contains("\"@graph\""));
+    }
+
+    @Test
+    public void testNativeTypes() throws Exception {
+        final JsonLdCompactor compactor = new JsonLdCompactor(10);
+        final Context context = compactor.getContext(PROFILE, CONTEXT).get();
+
+        final Graph graph = createDefaultGraph();
+        graph.add(create(createURI("http://example.org/resource"), DCTerms.extent.asNode(),
+                    createLiteral("3", XSDinteger)));
+        graph.add(create(createURI("http://example.org/resource"), DCTerms.valid.asNode(),
+                    createLiteral("true", XSDboolean)));
+        graph.add(create(createURI("http://example.org/resource"), DCTerms.temporal.asNode(),
+                    createLiteral("2.5", XSDdouble)));
+        graph.add(create(createURI("http://example.org/resource"), DCTerms.identifier.asNode(),
+                    createLiteral("007", XSDinteger)));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compactor.write(out, graph, PROFILE, context);
+        final String output = new String(out.toByteArray(), UTF_8);
+        assertTrue(output.contains("\"dcterms:extent\":3"));
+        assertTrue(output.contains("\"dcterms:valid\":true"));
+        assertTrue(output.contains("\"dcterms:temporal\":2.5"));
+        // A value that would not keep its lexical form remains a typed literal
+        assertTrue(output.contains("\"@type\":\"http://www.w3.org/2001/XMLSchema#integer\""));
+        assertTrue(output.contains("\"@value\":\"007\""));
+    }
+
+    @Test
+    public void testContextCache() {
+        final JsonLdCompactor compactor = new JsonLdCompactor(10);
+        final Context context = compactor.getContext(PROFILE, CONTEXT).get();
+        assertSame(context, compactor.getContext(PROFILE, CONTEXT).get());
+        assertNotSame(context, compactor.getContext(PROFILE, CONTEXT.replace("title", "name")).get());
+    }
+
+    @Test
+    public void testInvalidContext() {
+        final JsonLdCompactor compactor = new JsonLdCompactor(10);
+        assertFalse(compactor.getContext(PROFILE, "{\"@context\": ").isPresent());
+    }
+}
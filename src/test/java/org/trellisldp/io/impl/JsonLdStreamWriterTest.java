@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.jena.graph.Factory.createDefaultGraph;
+import static org.apache.jena.graph.NodeFactory.createBlankNode;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.apache.jena.graph.Triple.create;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class JsonLdStreamWriterTest {
+
+    @Test
+    public void testRoundTrip() {
+        final Node sub = createURI("http://example.org/resource");
+        final Node bn = createBlankNode();
+        final Graph input = createDefaultGraph();
+        input.add(create(sub, DCTerms.title.asNode(), createLiteral("A \"quoted\" title")));
+        input.add(create(sub, DCTerms.subject.asNode(), bn));
+        input.add(create(sub, RDF.type.asNode(), createURI("http://purl.org/dc/dcmitype/Text")));
+        input.add(create(bn, DCTerms.title.asNode(), createLiteral("Un titre", "fr")));
+        input.add(create(bn, DCTerms.extent.asNode(), createLiteral("10", XSDDatatype.XSDinteger)));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamRDF stream = new JsonLdStreamWriter(out);
+        stream.start();
+        input.find().forEachRemaining(stream::triple);
+        stream.finish();
+
+        final String json = new String(out.toByteArray(), UTF_8);
+        assertTrue(json.startsWith("["));
+        assertTrue(json.contains("\"@type\":[\"http://purl.org/dc/dcmitype/Text\"]"));
+        assertTrue(json.contains("\"http://purl.org/dc/terms/title\":" +
+                    "[{\"@value\":\"Un titre\",\"@language\":\"fr\"}]"));
+
+        final Graph output = createDefaultGraph();
+        RDFDataMgr.read(output, new ByteArrayInputStream(out.toByteArray()), Lang.JSONLD);
+        assertEquals(input.size(), output.size());
+        assertTrue(input.isIsomorphicWith(output));
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamRDF stream = new JsonLdStreamWriter(out);
+        stream.start();
+        stream.finish();
+        assertEquals("[]", new String(out.toByteArray(), UTF_8));
+    }
+}
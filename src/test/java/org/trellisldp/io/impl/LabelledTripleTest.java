@@ -14,6 +14,7 @@
 package org.trellisldp.io.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.commons.rdf.jena.JenaRDF;
 import org.apache.commons.rdf.api.BlankNode;
@@ -78,4 +79,20 @@ public class LabelledTripleTest {
         assertEquals(bn2.ntriplesString(), t.getObject());
         assertEquals(bn2.ntriplesString(), t.getObjectLabel());
     }
+
+    @Test
+    public void testCompare() {
+        final LabelledTriple t1 = new LabelledTriple(rdf.createTriple(
+                rdf.createIRI("test:a"), DC.title, rdf.createLiteral("B title")), null, null);
+        final LabelledTriple t2 = new LabelledTriple(rdf.createTriple(
+                rdf.createIRI("test:a"), DC.title, rdf.createLiteral("A title")), null, null);
+        final LabelledTriple t3 = new LabelledTriple(rdf.createTriple(
+                rdf.createIRI("test:a"), DC.subject, rdf.createIRI("test:z")), null, null);
+        final LabelledTriple t4 = new LabelledTriple(rdf.createTriple(
+                rdf.createIRI("test:b"), DC.subject, rdf.createIRI("test:a")), null, null);
+        assertTrue(LabelledTriple.compare(t1, t2) > 0);
+        assertTrue(LabelledTriple.compare(t3, t1) < 0);
+        assertTrue(LabelledTriple.compare(t4, t1) > 0);
+        assertEquals(0, LabelledTriple.compare(t1, t1));
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+
+import org.trellisldp.api.NamespaceService;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class NamespaceCacheTest {
+
+    @Mock
+    private NamespaceService mockNamespaceService;
+
+    @BeforeEach
+    public void setUp() {
+        initMocks(this);
+        final Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("dc", "http://purl.org/dc/terms/");
+        when(mockNamespaceService.getNamespaces()).thenReturn(namespaces);
+        when(mockNamespaceService.setPrefix(anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    public void testSnapshot() {
+        final NamespaceCache cache = new NamespaceCache(mockNamespaceService, 60000L);
+        assertEquals("http://purl.org/dc/terms/", cache.getNamespaces().get("dc"));
+        cache.getNamespaces();
+        verify(mockNamespaceService, times(1)).getNamespaces();
+
+        cache.invalidate();
+        cache.getNamespaces();
+        verify(mockNamespaceService, times(2)).getNamespaces();
+    }
+
+    @Test
+    public void testExpiry() {
+        final NamespaceCache cache = new NamespaceCache(mockNamespaceService, 0L);
+        cache.getNamespaces();
+        cache.getNamespaces();
+        verify(mockNamespaceService, times(2)).getNamespaces();
+    }
+
+    @Test
+    public void testRdfXmlHeader() {
+        final NamespaceCache cache = new NamespaceCache(mockNamespaceService, 60000L);
+        final RdfXmlHeader header = cache.getRdfXmlHeader();
+        assertTrue(header.getHeader().contains("xmlns:dc=\"http://purl.org/dc/terms/\""));
+        assertSame(header, cache.getRdfXmlHeader());
+
+        cache.register(singletonMap("ex", "http://example.org/"));
+        final RdfXmlHeader updated = cache.getRdfXmlHeader();
+        assertNotSame(header, updated);
+        assertTrue(updated.getHeader().contains("xmlns:ex=\"http://example.org/\""));
+    }
+
+    @Test
+    public void testRegister() {
+        final NamespaceCache cache = new NamespaceCache(mockNamespaceService, 60000L);
+        cache.register(emptyMap());
+        verify(mockNamespaceService, never()).getNamespaces();
+
+        cache.register(singletonMap("dcterms", "http://purl.org/dc/terms/"));
+        verify(mockNamespaceService, never()).setPrefix(anyString(), anyString());
+
+        cache.register(singletonMap("ex", "http://example.org/"));
+        cache.register(singletonMap("ex", "http://example.org/"));
+        verify(mockNamespaceService, times(1)).setPrefix("ex", "http://example.org/");
+        assertEquals("http://example.org/", cache.getNamespaces().get("ex"));
+        verify(mockNamespaceService, times(1)).getNamespaces();
+    }
+}
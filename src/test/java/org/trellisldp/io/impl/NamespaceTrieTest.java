@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.apache.jena.graph.NodeFactory.createBlankNode;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.apache.jena.graph.Triple.create;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.XSD;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class NamespaceTrieTest {
+
+    private NamespaceTrie trie;
+
+    @BeforeEach
+    public void setUp() {
+        final Map<String, String> prefixes = new HashMap<>();
+        prefixes.put("ex", "http://example.org/");
+        prefixes.put("exv", "http://example.org/vocab#");
+        prefixes.put("dc", DCTerms.NS);
+        prefixes.put("xsd", XSD.NS);
+        prefixes.put("foaf", "http://xmlns.com/foaf/0.1/");
+        trie = new NamespaceTrie(prefixes);
+    }
+
+    @Test
+    public void testLongestMatch() {
+        assertEquals("ex", trie.getPrefix("http://example.org/resource"));
+        assertEquals("exv", trie.getPrefix("http://example.org/vocab#term"));
+        assertEquals("dc", trie.getPrefix(DCTerms.title.getURI()));
+        assertNull(trie.getPrefix("http://example.com/resource"));
+        assertNull(trie.getPrefix("http://example"));
+    }
+
+    @Test
+    public void testUsedPrefixes() {
+        final List<Triple> triples = asList(
+                create(createURI("http://example.org/resource"), DCTerms.title.asNode(), createLiteral("A title")),
+                create(createBlankNode(), createURI("http://example.org/vocab#size"),
+                    createLiteral("10", XSDDatatype.XSDinteger)));
+        final Map<String, String> used = trie.getUsedPrefixes(triples.iterator());
+        assertEquals(asList("dc", "ex", "exv", "xsd"), used.keySet().stream().collect(toList()));
+        assertEquals(XSD.NS, used.get("xsd"));
+    }
+
+    @Test
+    public void testLookahead() {
+        final List<Triple> triples = asList(
+                create(createURI("http://example.org/resource"), DCTerms.title.asNode(), createLiteral("A title")),
+                create(createURI("http://xmlns.com/foaf/0.1/me"), DCTerms.title.asNode(), createLiteral("Me")));
+        final Map<String, String> declared = new HashMap<>();
+        final Stream<Triple> stream = trie.declareUsedPrefixes(triples.stream(), 1, declared::put);
+        assertEquals(2, declared.size());
+        assertEquals("http://example.org/", declared.get("ex"));
+        assertEquals(DCTerms.NS, declared.get("dc"));
+
+        // A namespace first used after the lookahead is declared before the triple that uses it
+        final List<Triple> output = stream.peek(triple ->
+                assertEquals(triple.getSubject().getURI().startsWith("http://xmlns.com/"),
+                    declared.containsKey("foaf"))).collect(toList());
+        assertEquals(triples, output);
+        assertEquals(3, declared.size());
+        assertEquals("http://xmlns.com/foaf/0.1/", declared.get("foaf"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class PooledWriterTest {
+
+    @Test
+    public void testWrite() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final Writer writer = new PooledWriter(out, 16)) {
+            writer.write("Hello, ");
+            writer.write('w');
+            writer.write("orld! A longer string that spans several buffers.".toCharArray());
+        }
+        assertEquals("Hello, world! A longer string that spans several buffers.", new String(out.toByteArray(), UTF_8));
+    }
+
+    @Test
+    public void testMultibyteCharacters() throws IOException {
+        // The surrogate pairs are split across buffer boundaries
+        final String value = "abcdefghijklmno😀 café 日本 😁";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final Writer writer = new PooledWriter(out, 16)) {
+            writer.write(value);
+            writer.flush();
+            writer.write(value);
+        }
+        assertEquals(value + value, new String(out.toByteArray(), UTF_8));
+    }
+
+    @Test
+    public void testReuse() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (final Writer writer = new PooledWriter(out, 16)) {
+                writer.write("Iteration " + i);
+            }
+            assertEquals("Iteration " + i, new String(out.toByteArray(), UTF_8));
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        final OutputStream mockOutput = mock(OutputStream.class);
+        final Writer writer = new PooledWriter(mockOutput);
+        writer.write("data");
+        writer.close();
+        writer.close();
+        verify(mockOutput, never()).close();
+        assertThrows(IOException.class, () -> writer.write("more"));
+    }
+}
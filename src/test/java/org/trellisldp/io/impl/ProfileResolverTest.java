@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class ProfileResolverTest {
+
+    private static final String PROFILE = "http://example.org/context.jsonld";
+
+    @Test
+    public void testResolve() {
+        final AtomicInteger calls = new AtomicInteger();
+        final ProfileResolver resolver = new ProfileResolver(p -> "document " + calls.incrementAndGet(),
+                1000L, 60000L, 60000L);
+        assertFalse(resolver.isCached(PROFILE));
+        assertEquals("document 1", resolver.resolve(PROFILE));
+        assertTrue(resolver.isCached(PROFILE));
+        assertEquals("document 1", resolver.resolve(PROFILE));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCoalesceMisses() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ProfileResolver resolver = new ProfileResolver(p -> {
+            calls.incrementAndGet();
+            try {
+                latch.await(5, SECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "document";
+        }, 5000L, 60000L, 60000L);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> resolver.resolve(PROFILE)));
+        }
+        Thread.sleep(200L);
+        latch.countDown();
+        for (final Future<String> result : results) {
+            assertEquals("document", result.get(5, SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ProfileResolver resolver = new ProfileResolver(p -> "document " + calls.incrementAndGet(),
+                1000L, 0L, 60000L);
+        assertEquals("document 1", resolver.resolve(PROFILE));
+        // The stale document is served while a refresh happens in the background
+        assertEquals("document 1", resolver.resolve(PROFILE));
+        for (int i = 0; i < 50 && calls.get() < 2; i++) {
+            Thread.sleep(20L);
+        }
+        assertTrue(calls.get() >= 2);
+    }
+
+    @Test
+    public void testNegativeCache() {
+        final AtomicInteger calls = new AtomicInteger();
+        final ProfileResolver resolver = new ProfileResolver(p -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Unavailable");
+        }, 1000L, 60000L, 60000L);
+        assertNull(resolver.resolve(PROFILE));
+        assertNull(resolver.resolve(PROFILE));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testTimeout() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ProfileResolver resolver = new ProfileResolver(p -> {
+            try {
+                latch.await(5, SECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "document";
+        }, 100L, 60000L, 60000L);
+        final long start = System.currentTimeMillis();
+        assertNull(resolver.resolve(PROFILE));
+        assertTrue(System.currentTimeMillis() - start < 2000L);
+        latch.countDown();
+    }
+}
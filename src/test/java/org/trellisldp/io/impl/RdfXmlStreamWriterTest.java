@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.apache.jena.graph.Factory.createDefaultGraph;
+import static org.apache.jena.graph.NodeFactory.createBlankNode;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.apache.jena.graph.Triple.create;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.DCTerms;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class RdfXmlStreamWriterTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Node sub = createURI("http://example.org/resource?a=1&b=2");
+        final Node bn = createBlankNode();
+        final Graph input = createDefaultGraph();
+        input.add(create(sub, DCTerms.title.asNode(), createLiteral("A <title> & \"more\"")));
+        input.add(create(sub, DCTerms.subject.asNode(), bn));
+        input.add(create(sub, RDF.type.asNode(), createURI("http://purl.org/dc/dcmitype/Text")));
+        input.add(create(bn, DCTerms.title.asNode(), createLiteral("Un titre", "fr")));
+        input.add(create(bn, DCTerms.extent.asNode(), createLiteral("10", XSDDatatype.XSDinteger)));
+        input.add(create(bn, createURI("http://example.org/vocab#prop"), createLiteral("line 1\nline 2")));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamRDF stream = new RdfXmlStreamWriter(out);
+        stream.start();
+        stream.prefix("dc", DCTerms.NS);
+        input.find().forEachRemaining(stream::triple);
+        stream.finish();
+
+        final String xml = new String(out.toByteArray(), UTF_8);
+        assertTrue(xml.contains("xmlns:dc=\"http://purl.org/dc/terms/\""));
+        assertTrue(xml.contains("<dc:title>A &lt;title&gt; &amp; \"more\"</dc:title>"));
+        assertTrue(xml.contains("xmlns:ns0=\"http://example.org/vocab#\""));
+
+        final Graph output = createDefaultGraph();
+        RDFDataMgr.read(output, new ByteArrayInputStream(out.toByteArray()), Lang.RDFXML);
+        assertEquals(input.size(), output.size());
+        assertTrue(input.isIsomorphicWith(output));
+    }
+
+    @Test
+    public void testHeader() {
+        final RdfXmlHeader header = RdfXmlHeader.of(singletonMap("dc", DCTerms.NS));
+        assertTrue(header.getHeader().contains("xmlns:dc=\"http://purl.org/dc/terms/\""));
+        assertEquals("rdf", header.getNamespaces().get(RDF.uri));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamRDF stream = new RdfXmlStreamWriter(out, 1024, header);
+        stream.start();
+        stream.prefix("ex", "http://example.org/vocab#");
+        stream.triple(create(createURI("http://example.org/resource"), DCTerms.title.asNode(),
+                    createLiteral("A title")));
+        stream.finish();
+
+        final String xml = new String(out.toByteArray(), UTF_8);
+        assertTrue(xml.startsWith(header.getHeader()));
+        assertTrue(xml.contains("<dc:title>A title</dc:title>"));
+        assertFalse(xml.contains("xmlns:ex="));
+        assertFalse(RdfXmlHeader.of(singletonMap("xmlfoo", DCTerms.NS)).getNamespaces().containsKey(DCTerms.NS));
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamRDF stream = new RdfXmlStreamWriter(out);
+        stream.start();
+        stream.finish();
+
+        final Graph output = createDefaultGraph();
+        RDFDataMgr.read(output, new ByteArrayInputStream(out.toByteArray()), Lang.RDFXML);
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    public void testInvalidPredicate() {
+        final StreamRDF stream = new RdfXmlStreamWriter(new ByteArrayOutputStream());
+        stream.start();
+        assertThrows(RiotException.class, () -> stream.triple(create(createURI("http://example.org/s"),
+                        createURI("http://example.org/123"), createLiteral("value"))));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.trellisldp.api.RuntimeRepositoryException;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class StreamMergerTest {
+
+    @Test
+    public void testMerge() {
+        final List<Integer> merged = StreamMerger.merge(asList(range(0, 1000).boxed(),
+                    range(1000, 2000).boxed()), 10, 2).collect(toList());
+        assertEquals(2000, merged.size());
+        assertEquals(range(0, 2000).boxed().collect(toList()), merged.stream().sorted().collect(toList()));
+        // Elements from a single source keep their order
+        assertEquals(range(0, 1000).boxed().collect(toList()),
+                merged.stream().filter(x -> x < 1000).collect(toList()));
+    }
+
+    @Test
+    public void testMergeEmpty() {
+        assertEquals(0L, StreamMerger.merge(emptyList(), 10, 2).count());
+        assertEquals(0L, StreamMerger.merge(asList(Stream.empty(), Stream.empty()), 10, 2).count());
+    }
+
+    @Test
+    public void testMergeError() {
+        final Stream<Integer> failing = range(0, 100).boxed().map(x -> {
+            if (x == 50) {
+                throw new IllegalStateException("Failure");
+            }
+            return x;
+        });
+        assertThrows(RuntimeRepositoryException.class, () ->
+                StreamMerger.merge(asList(failing, range(0, 100).boxed()), 10, 2).count());
+    }
+
+    @Test
+    public void testMergeFatalError() {
+        final Stream<Integer> failing = range(0, 100).boxed().map(x -> {
+            if (x == 50) {
+                throw new StackOverflowError("Failure");
+            }
+            return x;
+        });
+        assertThrows(RuntimeRepositoryException.class, () ->
+                StreamMerger.merge(asList(failing, range(0, 100).boxed()), 10, 2).count());
+    }
+
+    @Test
+    public void testMergeManySources() {
+        final List<Stream<Integer>> sources = range(0, 2 * StreamMerger.MAX_THREADS)
+            .mapToObj(x -> range(0, 100).boxed()).collect(toList());
+        assertEquals(200L * StreamMerger.MAX_THREADS, StreamMerger.merge(sources, 10, 2).count());
+    }
+
+    @Test
+    public void testClose() {
+        try (final Stream<Integer> merged = StreamMerger.merge(asList(range(0, 100000).boxed(),
+                        range(0, 100000).boxed()), 10, 2)) {
+            assertEquals(5L, merged.limit(5).count());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.write;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.github.mustachejava.Mustache;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class TemplateRegistryTest {
+
+    @Test
+    public void testClasspathTemplate() {
+        final TemplateRegistry registry = new TemplateRegistry(10);
+        final Mustache template = registry.get("/resource-test.mustache");
+        assertSame(template, registry.get("/resource-test.mustache"));
+        assertNotSame(template, registry.get("org/trellisldp/io/resource.mustache"));
+    }
+
+    @Test
+    public void testEviction() {
+        final TemplateRegistry registry = new TemplateRegistry(1);
+        final Mustache template = registry.get("/resource-test.mustache");
+        registry.get("org/trellisldp/io/resource.mustache");
+        assertNotSame(template, registry.get("/resource-test.mustache"));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final Path file = createTempDirectory("templates").resolve("test.mustache");
+        write(file, "Hello {{name}}".getBytes(UTF_8));
+
+        final TemplateRegistry registry = new TemplateRegistry(10);
+        final Mustache template = registry.get(file.toString());
+        assertEquals("Hello world", render(template));
+        write(file, "Goodbye {{name}}".getBytes(UTF_8));
+        assertSame(template, registry.get(file.toString()));
+
+        registry.invalidate(file.toString());
+        assertEquals("Goodbye world", render(registry.get(file.toString())));
+    }
+
+    private static String render(final Mustache template) {
+        final StringWriter writer = new StringWriter();
+        template.execute(writer, singletonMap("name", "world"));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trellisldp.io.impl;
+
+import static java.util.stream.IntStream.range;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.jena.JenaRDF;
+import org.apache.jena.graph.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+
+/**
+ * @author acoburn
+ */
+@RunWith(JUnitPlatform.class)
+public class TripleConverterTest {
+
+    private static final JenaRDF rdf = new JenaRDF();
+
+    @Mock
+    private IRI mockSubject, mockPredicate;
+
+    @Mock
+    private Triple mockTriple1, mockTriple2;
+
+    @BeforeEach
+    public void setUp() {
+        initMocks(this);
+        when(mockSubject.getIRIString()).thenReturn("http://example.org/resource");
+        when(mockPredicate.getIRIString()).thenReturn("http://purl.org/dc/terms/subject");
+        when(mockTriple1.getSubject()).thenReturn(mockSubject);
+        when(mockTriple1.getPredicate()).thenReturn(mockPredicate);
+        when(mockTriple1.getObject()).thenReturn(mockSubject);
+        when(mockTriple2.getSubject()).thenReturn(mockSubject);
+        when(mockTriple2.getPredicate()).thenReturn(mockPredicate);
+        when(mockTriple2.getObject()).thenReturn(rdf.asRDFTerm(createURI("http://example.org/other")));
+    }
+
+    @Test
+    public void testJenaTriple() {
+        final org.apache.jena.graph.Triple triple = org.apache.jena.graph.Triple.create(
+                createURI("http://example.org/resource"), createURI("http://purl.org/dc/terms/subject"),
+                createURI("http://example.org/other"));
+        assertSame(triple, new TripleConverter(10).apply(rdf.asTriple(triple)));
+    }
+
+    @Test
+    public void testReuseNodes() {
+        final TripleConverter converter = new TripleConverter(10);
+        final org.apache.jena.graph.Triple triple1 = converter.apply(mockTriple1);
+        final org.apache.jena.graph.Triple triple2 = converter.apply(mockTriple2);
+        assertEquals("http://example.org/resource", triple1.getSubject().getURI());
+        assertSame(triple1.getSubject(), triple1.getObject());
+        assertSame(triple1.getSubject(), triple2.getSubject());
+        assertSame(triple1.getPredicate(), triple2.getPredicate());
+        assertEquals("http://example.org/other", triple2.getObject().getURI());
+    }
+
+    @Test
+    public void testBoundedCache() {
+        final TripleConverter converter = new TripleConverter(0);
+        final Node subject1 = converter.apply(mockTriple1).getSubject();
+        final Node subject2 = converter.apply(mockTriple2).getSubject();
+        assertEquals(subject1, subject2);
+        assertNotSame(subject1, subject2);
+    }
+
+    @Test
+    public void testParallelStream() {
+        final List<IRI> iris = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final IRI iri = mock(IRI.class);
+            when(iri.getIRIString()).thenReturn("http://example.org/" + i);
+            iris.add(iri);
+        }
+        final List<Triple> triples = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final Triple triple = mock(Triple.class);
+            when(triple.getSubject()).thenReturn(iris.get(i % 20));
+            when(triple.getPredicate()).thenReturn(iris.get(i % 7));
+            when(triple.getObject()).thenReturn(iris.get(i % 11));
+            triples.add(triple);
+        }
+        final TripleConverter converter = new TripleConverter(10);
+        assertTrue(range(0, 500).parallel().allMatch(i -> {
+            final org.apache.jena.graph.Triple triple = converter.apply(triples.get(i));
+            return triple.getSubject().getURI().equals("http://example.org/" + i % 20)
+                && triple.getPredicate().getURI().equals("http://example.org/" + i % 7)
+                && triple.getObject().getURI().equals("http://example.org/" + i % 11);
+        }));
+    }
+}